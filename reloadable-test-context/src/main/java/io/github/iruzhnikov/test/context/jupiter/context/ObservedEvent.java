@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.context;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+
+/**
+ * Snapshot of test event for {@link ReloadableTestContextObserver}, extension context isn't valid after event
+ */
+@Getter
+public class ObservedEvent {
+    public enum Type {
+        BEFORE_EACH, TEST_METHOD, AFTER_EACH
+    }
+
+    private final Type type;
+    private final String uniqueId;
+    private final String displayName;
+    @Nullable
+    private final Class<?> testClass;
+    @Nullable
+    private final Method testMethod;
+    @Nullable
+    private final Throwable error;
+    private final Instant time = Instant.now();
+    private final String threadName = Thread.currentThread().getName();
+
+    public ObservedEvent(Type type, ExtensionContext context, @Nullable Throwable error) {
+        this(type, context.getUniqueId(), context.getDisplayName(), context.getTestClass().orElse(null),
+                context.getTestMethod().orElse(null), error);
+    }
+
+    public ObservedEvent(Type type, String uniqueId, String displayName, @Nullable Class<?> testClass,
+                         @Nullable Method testMethod, @Nullable Throwable error) {
+        this.type = type;
+        this.uniqueId = uniqueId;
+        this.displayName = displayName;
+        this.testClass = testClass;
+        this.testMethod = testMethod;
+        this.error = error;
+    }
+}
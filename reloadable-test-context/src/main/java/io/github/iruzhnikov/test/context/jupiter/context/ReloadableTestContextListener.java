@@ -63,6 +63,16 @@ public interface ReloadableTestContextListener extends TestContextListener {
                                           List<ExtensionContext> afterContext) {
     }
 
+    /**
+     * Probe of changed state of listener before restart, clean listener isn't restarted
+     * and restart is skipped when all restarted listeners are clean
+     *
+     * @return listener state is changed or it can't be checked
+     */
+    default boolean isDirty(Injector injector) {
+        return true;
+    }
+
     /**
      * Ordered by {@link org.junit.jupiter.api.Order}
      */
@@ -134,6 +144,7 @@ public interface ReloadableTestContextListener extends TestContextListener {
         public static final String AFTER_RESTART_STOP_CONTEXT = "afterRestartStopContext";
         public static final String RESTART_STOP_CONTEXT = "restartStopContext";
         public static final String BEFORE_RESTART_STOP_CONTEXT = "beforeRestartStopContext";
+        public static final String IS_DIRTY = "isDirty";
         public static final String AFTER_EACH = "afterEach";
         public static final String BEFORE_EACH = "beforeEach";
         public static final String AFTER_ALL = "afterAll";
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.context;
+
+/**
+ * Observer of tests, which doesn't change context: metrics, reports, logs
+ * <p>
+ * Events are published to bounded queue and observed in background thread, so slow observer doesn't delay tests,
+ * see {@link io.github.iruzhnikov.test.context.jupiter.context.impl.ObserversChannel}
+ */
+public interface ReloadableTestContextObserver {
+
+    void observe(ObservedEvent event);
+}
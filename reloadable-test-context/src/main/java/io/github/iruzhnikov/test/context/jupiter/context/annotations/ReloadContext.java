@@ -14,6 +14,18 @@ import java.lang.annotation.*;
 public @interface ReloadContext {
     When value();
 
+    /**
+     * Types of restarted listeners, all listeners are restarted when types and tags aren't declared.
+     * Listeners which depend on them by {@link io.github.iruzhnikov.test.context.jupiter.listeners.annotations.DependsOn}
+     * are restarted too
+     */
+    Class<?>[] listeners() default {};
+
+    /**
+     * {@link Tag} of restarted listeners types
+     */
+    String[] tags() default {};
+
     enum When {
         /**
          * Restart before current call
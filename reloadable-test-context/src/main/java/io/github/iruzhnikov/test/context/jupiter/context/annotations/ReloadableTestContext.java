@@ -3,6 +3,7 @@ package io.github.iruzhnikov.test.context.jupiter.context.annotations;
 import io.github.iruzhnikov.test.context.jupiter.DefaultTestContextExtension;
 import io.github.iruzhnikov.test.context.jupiter.ReloadableTestContextExtension;
 import io.github.iruzhnikov.test.context.jupiter.context.TestContextListener;
+import io.github.iruzhnikov.test.context.jupiter.managers.annotations.ManagerId;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 
@@ -21,6 +22,7 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
  * You can inject to test methods all {@link }
  */
 @Inherited
+@ManagerId
 @TestInstance(TestInstance.Lifecycle.PER_METHOD)
 @ExtendWith(ReloadableTestContextExtension.class)
 @OverrideTestContextExtension(
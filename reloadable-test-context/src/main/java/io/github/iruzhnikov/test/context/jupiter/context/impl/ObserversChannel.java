@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context.impl;
+
+import io.github.iruzhnikov.test.context.jupiter.context.ObservedEvent;
+import io.github.iruzhnikov.test.context.jupiter.context.ReloadableTestContextObserver;
+import io.github.iruzhnikov.test.context.jupiter.managers.ManagerFabric;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.platform.engine.ConfigurationParameters;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded queue of events of {@link ReloadableTestContextObserver}, which are observed in background thread
+ * <p>
+ * Full queue is handled by `test.context.observers.overflow`:
+ * <ul>
+ *     <li>`block` - test waits for free place (default)</li>
+ *     <li>`drop` - event is dropped</li>
+ *     <li>`count` - event is dropped and count of dropped events is logged on flush</li>
+ * </ul>
+ */
+@Slf4j
+public class ObserversChannel {
+    public static final String QUEUE_PROPERTY = ManagerFabric.BASE_PROPERTY + ".observers.queue";
+    public static final String OVERFLOW_PROPERTY = ManagerFabric.BASE_PROPERTY + ".observers.overflow";
+
+    public enum Overflow {
+        BLOCK, DROP, COUNT
+    }
+
+    private final Supplier<List<ReloadableTestContextObserver>> observers;
+    private final Overflow overflow;
+    /**
+     * Events and flush marks
+     */
+    private final BlockingQueue<Object> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile Thread consumer;
+
+    public ObserversChannel(ConfigurationParameters config, Supplier<List<ReloadableTestContextObserver>> observers) {
+        this(observers, config.get(QUEUE_PROPERTY, Integer::parseInt).orElse(1024),
+                config.get(OVERFLOW_PROPERTY, p -> Overflow.valueOf(p.toUpperCase(Locale.ROOT))).orElse(Overflow.BLOCK));
+    }
+
+    public ObserversChannel(Supplier<List<ReloadableTestContextObserver>> observers, int capacity, Overflow overflow) {
+        this.observers = observers;
+        this.overflow = overflow;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public boolean isObserved() {
+        return !observers.get().isEmpty();
+    }
+
+    public void publish(ObservedEvent event) {
+        startConsumer();
+        if (overflow == Overflow.BLOCK) {
+            put(event);
+        } else if (!queue.offer(event) && overflow == Overflow.COUNT) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Wait until published events are observed
+     */
+    public void flush() {
+        if (consumer == null) {
+            return;
+        }
+        var mark = new CountDownLatch(1);
+        put(mark);
+        try {
+            mark.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Observers flush interrupted", ex);
+        }
+        if (dropped.get() > 0) {
+            log.warn("Observed events are dropped by full queue: {}", dropped.get());
+        }
+    }
+
+    /**
+     * Wait until published events are observed and stop background thread,
+     * it is started again by next event
+     */
+    public void close() {
+        flush();
+        Thread thread;
+        synchronized (this) {
+            thread = consumer;
+            consumer = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Observers closing interrupted", ex);
+            }
+        }
+    }
+
+    /**
+     * Count of dropped events by {@link Overflow#COUNT}
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void put(Object event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Observed event publishing interrupted", ex);
+        }
+    }
+
+    private void startConsumer() {
+        if (consumer == null) {
+            synchronized (this) {
+                if (consumer == null) {
+                    var thread = new Thread(this::consume, "test-context-observers");
+                    thread.setDaemon(true);
+                    thread.start();
+                    consumer = thread;
+                }
+            }
+        }
+    }
+
+    private void consume() {
+        while (true) {
+            Object event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException ex) {
+                return;
+            }
+            if (event instanceof CountDownLatch) {
+                ((CountDownLatch) event).countDown();
+                continue;
+            }
+            for (var observer : observers.get()) {
+                try {
+                    observer.observe((ObservedEvent) event);
+                } catch (Throwable ex) {
+                    log.error("Observer '{}' is failed", observer.getClass().getName(), ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context.impl;
+
+import io.github.iruzhnikov.test.context.jupiter.managers.ManagerFabric;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.platform.engine.ConfigurationParameters;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pending reload requests, which are merged into one restart
+ * <p>
+ * Policy is configured by `test.context.reload.policy`:
+ * <ul>
+ *     <li>`request` - restart before next test (default)</li>
+ *     <li>`count` - tests which request reload after themselves run on not restarted context
+ *     until `test.context.reload.batch` requests</li>
+ *     <li>`window` - tests which request reload after themselves run on not restarted context
+ *     during `test.context.reload.window` milliseconds from first request</li>
+ * </ul>
+ * Other tests always get restarted context
+ */
+@Slf4j
+public class ReloadCoordinator<T> {
+    public static final String POLICY_PROPERTY = ManagerFabric.BASE_PROPERTY + ".reload.policy";
+    public static final String BATCH_PROPERTY = ManagerFabric.BASE_PROPERTY + ".reload.batch";
+    public static final String WINDOW_PROPERTY = ManagerFabric.BASE_PROPERTY + ".reload.window";
+
+    public enum Policy {
+        REQUEST, COUNT, WINDOW
+    }
+
+    private final Policy policy;
+    private final int batch;
+    private final Duration window;
+    private final List<T> requests = new CopyOnWriteArrayList<>();
+    private volatile long firstRequest;
+    /**
+     * Count of restarts
+     */
+    @Getter
+    private volatile int reloads;
+    /**
+     * Count of requests which are merged into restarts of other requests
+     */
+    @Getter
+    private volatile int merged;
+    /**
+     * Count of restarts which are skipped, because listeners are clean
+     */
+    @Getter
+    private volatile int skipped;
+
+    public ReloadCoordinator(ConfigurationParameters config) {
+        this(config.get(POLICY_PROPERTY, p -> Policy.valueOf(p.toUpperCase(Locale.ROOT))).orElse(Policy.REQUEST),
+                config.get(BATCH_PROPERTY, Integer::parseInt).orElse(1),
+                config.get(WINDOW_PROPERTY, Long::parseLong).map(Duration::ofMillis).orElse(Duration.ZERO));
+    }
+
+    public ReloadCoordinator(Policy policy, int batch, Duration window) {
+        this.policy = policy;
+        this.batch = batch;
+        this.window = window;
+    }
+
+    public void request(T request) {
+        if (requests.isEmpty()) {
+            firstRequest = System.nanoTime();
+        }
+        requests.add(request);
+    }
+
+    public boolean hasRequests() {
+        return !requests.isEmpty();
+    }
+
+    /**
+     * Restart is needed before next test
+     *
+     * @param isRequesting next test requests reload after itself
+     */
+    public boolean isDue(boolean isRequesting) {
+        if (requests.isEmpty()) {
+            return false;
+        }
+        if (!isRequesting) {
+            return true;
+        }
+        switch (policy) {
+            case COUNT:
+                return requests.size() >= batch;
+            case WINDOW:
+                return System.nanoTime() - firstRequest >= window.toNanos();
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Requests of next restart
+     */
+    public List<T> getRequests() {
+        return List.copyOf(requests);
+    }
+
+    /**
+     * Remove requests after restart
+     */
+    public void complete() {
+        var count = requests.size();
+        requests.clear();
+        reloads++;
+        if (count > 1) {
+            merged += count - 1;
+            log.info("Restart merged {} reload requests, merged in all restarts: {}", count, merged);
+        }
+    }
+
+    /**
+     * Remove requests without restart
+     */
+    public void skip() {
+        requests.clear();
+        skipped++;
+        log.info("Restart skipped, because restarted listeners are clean, skipped restarts: {}", skipped);
+    }
+
+    public void clear() {
+        requests.clear();
+    }
+}
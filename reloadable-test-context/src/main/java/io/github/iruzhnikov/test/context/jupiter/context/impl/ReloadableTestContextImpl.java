@@ -1,57 +1,103 @@
 package io.github.iruzhnikov.test.context.jupiter.context.impl;
 
 import io.github.iruzhnikov.test.context.jupiter.TestContextManager;
+import io.github.iruzhnikov.test.context.jupiter.context.ObservedEvent;
 import io.github.iruzhnikov.test.context.jupiter.context.ReloadableTestContext;
 import io.github.iruzhnikov.test.context.jupiter.context.ReloadableTestContextListener;
+import io.github.iruzhnikov.test.context.jupiter.context.ReloadableTestContextListener.Methods;
+import io.github.iruzhnikov.test.context.jupiter.context.ReloadableTestContextObserver;
 import io.github.iruzhnikov.test.context.jupiter.context.annotations.ReloadContext;
 import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import io.github.iruzhnikov.test.context.jupiter.listeners.ListenerEvent;
+import io.github.iruzhnikov.test.context.jupiter.managers.ManagerFabric;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.InvocationInterceptor;
 import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static io.github.iruzhnikov.test.context.jupiter.context.ReloadableTestContextListener.Methods.*;
 import static io.github.iruzhnikov.test.context.jupiter.context.annotations.ReloadContext.When.AFTER;
 import static io.github.iruzhnikov.test.context.jupiter.context.annotations.ReloadContext.When.BEFORE;
+import static io.github.iruzhnikov.test.context.jupiter.context.TestContextListener.Methods.START_CONTEXT;
 import static org.junit.platform.commons.util.AnnotationUtils.findAnnotation;
+import static org.junit.platform.commons.util.AnnotationUtils.findRepeatableAnnotations;
 
+/**
+ * Tests share the context under read lock and run concurrently,
+ * reload and tests with {@link ReloadContext} run exclusively under write lock.
+ * Lock of test is held from {@link #beforeEach(ExtensionContext)} to {@link #afterEach(ExtensionContext)}
+ * <p>
+ * With generations of context (config `test.context.generations=true`) reload starts new generation
+ * alongside current one without locks, see {@link TestContextManager#renewContext(ExtensionContext)}.
+ * Running tests keep their generation, {@link ReloadContext#listeners()} and {@link ReloadContext#tags()}
+ * are ignored
+ */
 @Slf4j
 public class ReloadableTestContextImpl extends TestContextImpl implements ReloadableTestContext {
-    private final List<ExtensionContext> neededBeforeReloadContext = new CopyOnWriteArrayList<>();
-    private final AtomicBoolean hasAfterReload = new AtomicBoolean(false);
-    private final AtomicBoolean enteredToReload = new AtomicBoolean(false);
-    private final ReentrantLock reloadLock = new ReentrantLock();
+    @Getter
+    private final ReloadCoordinator<ExtensionContext> reloadCoordinator;
+    @Getter
+    private final ObserversChannel observersChannel;
+    //fair lock: waiting reload isn't starved by tests
+    private final ReentrantReadWriteLock reloadLock = new ReentrantReadWriteLock(true);
+    private final Map<String, Lock> heldLocks = new ConcurrentHashMap<>();
+    private final boolean isGenerations;
+    /**
+     * Test contexts which already use new generation
+     */
+    private final Set<String> renewedContexts = ConcurrentHashMap.newKeySet();
 
     private final ThreadLocal<Integer> logCall = ThreadLocal.withInitial(() -> 0);
 
     public ReloadableTestContextImpl(TestContextManager manager) {
         super(manager);
         getManager().getListenersManager().loadListeners(ReloadableTestContextListener.class);
+        reloadCoordinator = new ReloadCoordinator<>(getManager().getConfig());
+        getManager().getListenersManager().loadListeners(ReloadableTestContextObserver.class);
+        observersChannel = new ObserversChannel(getManager().getConfig(), () -> getManager().getListenersManager()
+                .getListeners(ReloadableTestContextObserver.class, "observe"));
+        isGenerations = getManager().getConfig().getBoolean(TestContextManager.TEST_CONTEXT_GENERATIONS_PROPERTY)
+                .orElse(false);
+    }
+
+    @Override
+    public void finish() {
+        observersChannel.flush();
     }
 
     @Override
     protected void internalStop() {
+        observersChannel.close();
         super.internalStop();
-        neededBeforeReloadContext.clear();
-        enteredToReload.set(false);
-        hasAfterReload.set(false);
-        unlock("internalStop", null);
+        reloadCoordinator.clear();
     }
 
     @Override
     public void beforeAll(ExtensionContext context) {
+        var renewed = renewBefore(context);
+        if (renewed != this) {
+            renewed.beforeAll(context);
+            return;
+        }
         lock(BEFORE_ALL, context);
         try {
             reloadBefore(context, BEFORE_ALL);
-            fireListeners(BEFORE_ALL, l -> l.beforeAll(injector(), context));
+            fireListeners(Event.BEFORE_ALL, injector(), context, null);
         } finally {
             unlock(BEFORE_ALL, context);
         }
@@ -61,8 +107,9 @@ public class ReloadableTestContextImpl extends TestContextImpl implements Reload
     public void interceptBeforeAllMethod(InvocationInterceptor.Invocation<Void> invocation,
                                          ReflectiveInvocationContext<Method> invocationContext,
                                          ExtensionContext extensionContext) throws Throwable {
+        lock(BEFORE_ALL_HANDLE, extensionContext);
         try {
-            callInterceptor(invocation, extensionContext, BEFORE_ALL_HANDLE, ReloadableTestContextListener::beforeAllHandle);
+            callInterceptor(invocation, extensionContext, Event.BEFORE_ALL_HANDLE);
         } finally {
             unlock(BEFORE_ALL_HANDLE, extensionContext);
         }
@@ -70,12 +117,20 @@ public class ReloadableTestContextImpl extends TestContextImpl implements Reload
 
     @Override
     public void beforeEach(ExtensionContext context) {
+        var renewed = renewBefore(context);
+        if (renewed != this) {
+            renewed.beforeEach(context);
+            return;
+        }
+        //lock is held until afterEach
         lock(BEFORE_EACH, context);
         try {
             reloadBefore(context, BEFORE_EACH);
-            fireListeners(BEFORE_EACH, l -> l.beforeEach(injector(), context));
-        } finally {
+            fireListeners(Event.BEFORE_EACH, injector(), context, null);
+            observe(ObservedEvent.Type.BEFORE_EACH, context, null);
+        } catch (Throwable ex) {
             unlock(BEFORE_EACH, context);
+            throw ex;
         }
     }
 
@@ -83,21 +138,21 @@ public class ReloadableTestContextImpl extends TestContextImpl implements Reload
     public void interceptBeforeEachMethod(InvocationInterceptor.Invocation<Void> invocation,
                                           ReflectiveInvocationContext<Method> invocationContext,
                                           ExtensionContext extensionContext) throws Throwable {
-        try {
-            callInterceptor(invocation, extensionContext, BEFORE_EACH_HANDLE, ReloadableTestContextListener::beforeEachHandle);
-        } finally {
-            unlock(BEFORE_EACH_HANDLE, extensionContext);
-        }
+        callInterceptor(invocation, extensionContext, Event.BEFORE_EACH_HANDLE);
     }
 
     @Override
     public void interceptTestMethod(InvocationInterceptor.Invocation<Void> invocation,
                                     ReflectiveInvocationContext<Method> invocationContext,
                                     ExtensionContext extensionContext) throws Throwable {
+        Throwable error = null;
         try {
-            callInterceptor(invocation, extensionContext, TEST_METHOD_HANDLE, ReloadableTestContextListener::testMethodHandle);
+            callInterceptor(invocation, extensionContext, Event.TEST_METHOD_HANDLE);
+        } catch (Throwable ex) {
+            error = ex;
+            throw ex;
         } finally {
-            unlock(TEST_METHOD_HANDLE, extensionContext);
+            observe(ObservedEvent.Type.TEST_METHOD, extensionContext, error);
         }
     }
 
@@ -105,21 +160,17 @@ public class ReloadableTestContextImpl extends TestContextImpl implements Reload
     public void interceptAfterEachMethod(InvocationInterceptor.Invocation<Void> invocation,
                                          ReflectiveInvocationContext<Method> invocationContext,
                                          ExtensionContext extensionContext) throws Throwable {
-        lock(AFTER_EACH_HANDLE, extensionContext);
-        try {
-            callInterceptor(invocation, extensionContext, AFTER_EACH_HANDLE, ReloadableTestContextListener::afterEachHandle);
-        } finally {
-            unlock(AFTER_EACH_HANDLE, extensionContext);
-        }
+        callInterceptor(invocation, extensionContext, Event.AFTER_EACH_HANDLE);
     }
 
     @Override
     public void afterEach(ExtensionContext context) {
         try {
             reloadAfter(context, AFTER_EACH);
-            fireListeners(AFTER_EACH, l -> l.afterEach(injector(), context));
+            fireListeners(Event.AFTER_EACH, injector(), context, null);
+            observe(ObservedEvent.Type.AFTER_EACH, context, context.getExecutionException().orElse(null));
         } finally {
-            unlock(AFTER_EACH_HANDLE, context);
+            unlock(AFTER_EACH, context);
         }
     }
 
@@ -129,7 +180,7 @@ public class ReloadableTestContextImpl extends TestContextImpl implements Reload
                                         ExtensionContext extensionContext) throws Throwable {
         lock(AFTER_ALL_HANDLE, extensionContext);
         try {
-            callInterceptor(invocation, extensionContext, AFTER_ALL_HANDLE, ReloadableTestContextListener::afterAllHandle);
+            callInterceptor(invocation, extensionContext, Event.AFTER_ALL_HANDLE);
         } finally {
             unlock(AFTER_ALL_HANDLE, extensionContext);
         }
@@ -137,27 +188,85 @@ public class ReloadableTestContextImpl extends TestContextImpl implements Reload
 
     @Override
     public void afterAll(ExtensionContext context) {
+        lock(AFTER_ALL, context);
         try {
             reloadAfter(context, AFTER_ALL);
-            fireListeners(AFTER_ALL, l -> l.afterAll(injector(), context));
+            fireListeners(Event.AFTER_ALL, injector(), context, null);
         } finally {
             unlock(AFTER_ALL, context);
         }
     }
 
+    private void observe(ObservedEvent.Type type, ExtensionContext context, @Nullable Throwable error) {
+        if (observersChannel.isObserved()) {
+            observersChannel.publish(new ObservedEvent(type, context, error));
+        }
+    }
+
     protected void unlock(String method, ExtensionContext context) {
-        if (reloadLock.isHeldByCurrentThread()) {
+        var lock = heldLocks.remove(context.getUniqueId());
+        if (lock != null) {
             log("unlock-" + method, false, context);
-            reloadLock.unlock();
+            lock.unlock();
         }
     }
 
     protected void lock(String method, ExtensionContext context) {
         log(method, true, context);
-        reloadLock.lock();
+        var lock = isExclusive(method, context) ? reloadLock.writeLock() : reloadLock.readLock();
+        lock.lock();
+        //reload became due while waiting for the lock
+        if (lock == reloadLock.readLock() && isReloadDue(method, context)) {
+            lock.unlock();
+            lock = reloadLock.writeLock();
+            lock.lock();
+        }
+        heldLocks.put(context.getUniqueId(), lock);
         log(method, false, context);
     }
 
+    /**
+     * Replace read lock of context by write lock
+     */
+    protected void lockExclusive(String method, ExtensionContext context) {
+        var lock = heldLocks.remove(context.getUniqueId());
+        if (lock != null) {
+            lock.unlock();
+        }
+        log(method + "-exclusive", true, context);
+        reloadLock.writeLock().lock();
+        heldLocks.put(context.getUniqueId(), reloadLock.writeLock());
+        log(method + "-exclusive", false, context);
+    }
+
+    /**
+     * Downgrade write lock of context taken by {@link #lockExclusive(String, ExtensionContext)} to read lock
+     */
+    protected void lockShared(String method, ExtensionContext context) {
+        reloadLock.readLock().lock();
+        var lock = heldLocks.put(context.getUniqueId(), reloadLock.readLock());
+        if (lock != null) {
+            lock.unlock();
+        }
+        log(method + "-shared", false, context);
+    }
+
+    protected boolean isExclusive(String method, ExtensionContext context) {
+        return !isGenerations && (findAnnotation(context.getElement(), ReloadContext.class).isPresent()
+                || isReloadDue(method, context));
+    }
+
+    /**
+     * Pending requests are restarted by this acquisition, tests with not due requests keep running under read lock
+     */
+    protected boolean isReloadDue(String method, ExtensionContext context) {
+        if (isGenerations || !BEFORE_ALL.equals(method) && !BEFORE_EACH.equals(method)) {
+            return false;
+        }
+        return reloadCoordinator.isDue(findAnnotation(context.getElement(), ReloadContext.class)
+                .map(ReloadContext::value).filter(AFTER::equals).isPresent());
+    }
+
     protected void log(String method, boolean beforeLock, ExtensionContext context) {
         if (log.isTraceEnabled()) {
             logCall.set(logCall.get() + 1);
@@ -172,91 +281,201 @@ public class ReloadableTestContextImpl extends TestContextImpl implements Reload
     }
 
     protected void reloadBefore(ExtensionContext context, @ReloadableTestContextListener.MagicConstant String methodName) {
+        if (isGenerations) {
+            //new generation is started by renewBefore
+            return;
+        }
+        var annotation = findAnnotation(context.getElement(), ReloadContext.class).map(ReloadContext::value);
+        var isBefore = annotation.filter(BEFORE::equals).isPresent();
+        var isRequesting = annotation.filter(AFTER::equals).isPresent();
+        if (!isBefore && !reloadCoordinator.isDue(isRequesting)) {
+            return;
+        }
+        if (reloadLock.isWriteLockedByCurrentThread()) {
+            reloadRequests(context, isBefore);
+            return;
+        }
+        //reload is requested after read lock was taken, context isn't restarted while other tests use it
+        lockExclusive(methodName, context);
+        try {
+            if (isBefore || reloadCoordinator.isDue(isRequesting)) {
+                reloadRequests(context, isBefore);
+            }
+        } finally {
+            lockShared(methodName, context);
+        }
+    }
+
+    private void reloadRequests(ExtensionContext context, boolean isBefore) {
+        if (isBefore) {
+            reloadCoordinator.request(context);
+        }
+        //failed reload keeps requests, so they are restarted before next test
+        if (reload(context)) {
+            reloadCoordinator.complete();
+        } else {
+            reloadCoordinator.skip();
+        }
+    }
+
+    /**
+     * Start new generation for context with {@link ReloadContext.When#BEFORE}
+     *
+     * @return context of new generation or current context
+     */
+    protected ReloadableTestContext renewBefore(ExtensionContext context) {
+        if (!isGenerations || renewedContexts.remove(context.getUniqueId())) {
+            return this;
+        }
         var annotation = findAnnotation(context.getElement(), ReloadContext.class);
-        if (annotation.isPresent() && annotation.get().value().equals(BEFORE) || hasAfterReload.get()) {
-            if (!enteredToReload.getAndSet(true)) {
-                try {
-                    reload(context);
-                } finally {
-                    neededBeforeReloadContext.clear();
-                    enteredToReload.set(false);
-                    hasAfterReload.set(false);
-                }
-            } else {
-                logNotFiredExecution(context, methodName);
+        if (annotation.isPresent() && annotation.get().value().equals(BEFORE)) {
+            log.info("Restarting context ...");
+            var renewed = (ReloadableTestContext) ManagerFabric.getInstance().getManager(context)
+                    .renewContext(context).getContext();
+            if (renewed instanceof ReloadableTestContextImpl) {
+                ((ReloadableTestContextImpl) renewed).renewedContexts.add(context.getUniqueId());
             }
+            log.info("Restart context finished");
+            return renewed;
         }
+        return this;
     }
 
     protected void reloadAfter(ExtensionContext context, @ReloadableTestContextListener.MagicConstant String methodName) {
         var annotation = findAnnotation(context.getElement(), ReloadContext.class);
         if (annotation.isPresent() && annotation.get().value().equals(AFTER)) {
-            if (!hasAfterReload.getAndSet(true) || !enteredToReload.get()) {
-                neededBeforeReloadContext.add(context);
+            if (isGenerations) {
+                log.info("Restarting context ...");
+                ManagerFabric.getInstance().getManager(context).renewContext();
+                log.info("Restart context finished");
             } else {
-                logNotFiredExecution(context, methodName);
+                reloadCoordinator.request(context);
             }
         }
     }
 
-    protected void logNotFiredExecution(ExtensionContext context, String methodName) {
-        var message = "ExtensionContext '" + context.getUniqueId() + "' not fired '" + methodName +
-                "', because firing process already started";
-        if (log.isDebugEnabled() || log.isTraceEnabled()) {
-            log.warn(message);
+    /**
+     * @return false when restart is skipped
+     */
+    protected boolean reload(ExtensionContext context) {
+        var requests = reloadCoordinator.getRequests();
+        var reloaded = getReloadedListeners(requests);
+        if (reloaded != null && reloaded.isEmpty()) {
+            return false;
+        } else if (reloaded == null) {
+            log.info("Restarting context ...");
         } else {
-            log.info(message);
+            log.info("Restarting listeners: " + reloaded.stream()
+                    .map(l -> l.getClass().getName()).collect(Collectors.joining(", ")));
         }
-    }
-
-    protected void reload(ExtensionContext context) {
-        log.info("Restarting context ...");
-        fireListeners(BEFORE_RESTART_STOP_CONTEXT,
-                l -> l.beforeRestartStopContext(injector(), context, neededBeforeReloadContext));
-        fireListeners(RESTART_STOP_CONTEXT,
-                l -> l.restartStopContext(injector(), context, neededBeforeReloadContext));
-        fireListeners(AFTER_RESTART_STOP_CONTEXT,
-                l -> l.afterRestartStopContext(injector(), context, neededBeforeReloadContext));
-        fireListeners(RESTART_START_CONTEXT,
-                l -> l.restartStartContext(injector(), context, neededBeforeReloadContext));
-        fireListeners(AFTER_RESTART_START_CONTEXT,
-                l -> l.afterRestartStartContext(injector(), context, neededBeforeReloadContext));
+        Predicate<Object> isReloaded = reloaded == null ? l -> true : reloaded::contains;
+        fireListeners(BEFORE_RESTART_STOP_CONTEXT, isReloaded,
+                l -> l.beforeRestartStopContext(injector(), context, requests));
+        fireListeners(RESTART_STOP_CONTEXT, isReloaded,
+                l -> l.restartStopContext(injector(), context, requests));
+        fireListeners(AFTER_RESTART_STOP_CONTEXT, isReloaded,
+                l -> l.afterRestartStopContext(injector(), context, requests));
+        fireListeners(RESTART_START_CONTEXT, isReloaded,
+                l -> l.restartStartContext(injector(), context, requests));
+        fireListeners(AFTER_RESTART_START_CONTEXT, isReloaded,
+                l -> l.afterRestartStartContext(injector(), context, requests));
         log.info("Restart context finished");
+        return true;
     }
 
-    private void fireListeners(@ReloadableTestContextListener.MagicConstant String methodName,
-                               Consumer<ReloadableTestContextListener> consumer) {
-        fireListeners(methodName, ReloadableTestContextListener.class, consumer);
+    /**
+     * Dirty listeners selected by {@link ReloadContext#listeners()} and {@link ReloadContext#tags()} of reload requests
+     * with their dependents, see {@link ReloadableTestContextListener#isDirty(Injector)}
+     *
+     * @return null when all listeners are restarted
+     */
+    @Nullable
+    protected Set<Object> getReloadedListeners(List<ExtensionContext> requests) {
+        var annotations = requests.stream().map(c -> findAnnotation(c.getElement(), ReloadContext.class))
+                .flatMap(Optional::stream).collect(Collectors.toList());
+        var isAll = annotations.isEmpty() ||
+                annotations.stream().anyMatch(a -> a.listeners().length == 0 && a.tags().length == 0);
+        var types = annotations.stream().flatMap(a -> Arrays.stream(a.listeners())).collect(Collectors.toSet());
+        var tags = annotations.stream().flatMap(a -> Arrays.stream(a.tags())).collect(Collectors.toSet());
+        Predicate<Object> isSelected = l -> isAll || types.stream().anyMatch(t -> t.isInstance(l)) ||
+                findRepeatableAnnotations(l.getClass(), Tag.class).stream().anyMatch(t -> tags.contains(t.value()));
+
+        var clean = Collections.newSetFromMap(new IdentityHashMap<>());
+        getManager().getListenersManager().getListeners(ReloadableTestContextListener.class, IS_DIRTY).stream()
+                .filter(l -> isSelected.test(l) && (isDeferred(l) || !l.isDirty(injector())))
+                .forEach(clean::add);
+        if (isAll && clean.isEmpty()) {
+            return null;
+        }
+        if (!clean.isEmpty()) {
+            log.info("Clean listeners aren't restarted: " + clean.stream()
+                    .map(l -> l.getClass().getName()).collect(Collectors.joining(", ")));
+        }
+        var reloaded = Collections.newSetFromMap(new IdentityHashMap<>());
+        //dependents are dependencies in reversed graph
+        reloaded.addAll(getListenersGraph(START_CONTEXT).reversed()
+                .filter(l -> isSelected.test(l) && !clean.contains(l)).getListeners());
+        return reloaded;
     }
 
-    private void callInterceptor(InvocationInterceptor.Invocation<Void> invocation,
-                                 ExtensionContext extensionContext, String methodName,
-                                 ListenerOfHandler<ReloadableTestContextListener> listenerConsumer) throws Throwable {
-        callInterceptor(invocation, extensionContext, methodName, ReloadableTestContextListener.class, listenerConsumer);
+    private void fireListeners(@ReloadableTestContextListener.MagicConstant String methodName,
+                               Predicate<Object> filter, Consumer<ReloadableTestContextListener> consumer) {
+        fireListeners(methodName, ReloadableTestContextListener.class, l -> {
+            if (filter.test(l)) {
+                consumer.accept(l);
+            }
+        });
     }
 
     protected <T> void callInterceptor(InvocationInterceptor.Invocation<Void> invocation,
-                                       ExtensionContext extensionContext, String methodName,
-                                       @SuppressWarnings("SameParameterValue") Class<T> listenerType,
-                                       ListenerOfHandler<T> listenerConsumer) throws Throwable {
+                                       ExtensionContext extensionContext, ListenerEvent<T> event) throws Throwable {
         boolean notThrown = true;
         try {
             invocation.proceed();
         } catch (Throwable internal) {
             notThrown = false;
-            fireListeners(methodName, listenerType,
-                    l -> listenerConsumer.handle(l, injector(), extensionContext, internal));
+            fireListeners(event, injector(), extensionContext, internal);
             throw internal;
         } finally {
             if (notThrown) {
-                fireListeners(methodName, listenerType,
-                        l -> listenerConsumer.handle(l, injector(), extensionContext, null));
+                fireListeners(event, injector(), extensionContext, null);
             }
         }
     }
 
-    @FunctionalInterface
-    protected interface ListenerOfHandler<T> {
-        void handle(T listener, Injector injector, ExtensionContext extensionContext, Throwable tx);
+    /**
+     * Test lifecycle events, listener methods are bound to invokers once
+     */
+    @Getter
+    private enum Event implements ListenerEvent<ReloadableTestContextListener> {
+        BEFORE_ALL(Methods.BEFORE_ALL, Injector.class, ExtensionContext.class),
+        BEFORE_EACH(Methods.BEFORE_EACH, Injector.class, ExtensionContext.class),
+        AFTER_EACH(Methods.AFTER_EACH, Injector.class, ExtensionContext.class),
+        AFTER_ALL(Methods.AFTER_ALL, Injector.class, ExtensionContext.class),
+        BEFORE_ALL_HANDLE(Methods.BEFORE_ALL_HANDLE, Injector.class, ExtensionContext.class, Throwable.class),
+        BEFORE_EACH_HANDLE(Methods.BEFORE_EACH_HANDLE, Injector.class, ExtensionContext.class, Throwable.class),
+        TEST_METHOD_HANDLE(Methods.TEST_METHOD_HANDLE, Injector.class, ExtensionContext.class, Throwable.class),
+        AFTER_EACH_HANDLE(Methods.AFTER_EACH_HANDLE, Injector.class, ExtensionContext.class, Throwable.class),
+        AFTER_ALL_HANDLE(Methods.AFTER_ALL_HANDLE, Injector.class, ExtensionContext.class, Throwable.class);
+
+        private final String methodName;
+        private final int index = ListenerEvent.nextIndex();
+        @Getter(AccessLevel.NONE)
+        private final MethodHandle invoker;
+
+        Event(String methodName, Class<?>... parameterTypes) {
+            this.methodName = methodName;
+            this.invoker = ListenerEvent.bind(ReloadableTestContextListener.class, methodName, parameterTypes);
+        }
+
+        @Override
+        public Class<ReloadableTestContextListener> getListenerType() {
+            return ReloadableTestContextListener.class;
+        }
+
+        @Override
+        public void invoke(ReloadableTestContextListener listener, Object first, Object second, Object third) {
+            ListenerEvent.invoke(invoker, listener, first, second, third);
+        }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context;
+
+import io.github.iruzhnikov.test.context.jupiter.context.annotations.ReloadContext;
+import io.github.iruzhnikov.test.context.jupiter.context.annotations.ReloadableTestContext;
+import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import io.github.iruzhnikov.test.context.jupiter.listeners.ListenerMetadata;
+import io.github.iruzhnikov.test.context.jupiter.listeners.annotations.TestContextListener;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ReloadableTestContext
+@Isolated("counts restarts of the shared context")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestContextListener(include = DirtyProbeTest.Probed.class)
+class DirtyProbeTest {
+    private static int restarts;
+
+    @Test
+    @Order(1)
+    void countRestarts(Probed probed) {
+        restarts = probed.getRestarts().get();
+        probed.setDirty(false);
+    }
+
+    @Test
+    @Order(2)
+    @ReloadContext(value = ReloadContext.When.BEFORE, listeners = Probed.class)
+    void cleanListenerNotRestarted(Probed probed) {
+        assertEquals(restarts, probed.getRestarts().get());
+        probed.setDirty(true);
+    }
+
+    @Test
+    @Order(3)
+    @ReloadContext(value = ReloadContext.When.BEFORE, listeners = Probed.class)
+    void dirtyListenerRestarted(Probed probed) {
+        assertEquals(restarts + 1, probed.getRestarts().get());
+    }
+
+    @Test
+    @Order(4)
+    void defaultDirtyProbeImplemented() {
+        var metadata = ListenerMetadata.of(Restarted.class);
+        assertTrue(metadata.isImplemented(ReloadableTestContextListener.Methods.IS_DIRTY));
+        assertFalse(metadata.isImplemented(ReloadableTestContextListener.Methods.BEFORE_EACH));
+    }
+
+    public static class Restarted implements ReloadableTestContextListener {
+    }
+
+    public static class Probed implements ReloadableTestContextListener {
+        @Getter
+        private final AtomicInteger restarts = new AtomicInteger();
+        @Setter
+        private volatile boolean dirty = true;
+
+        @Override
+        public boolean isDirty(Injector injector) {
+            return dirty;
+        }
+
+        @Override
+        public void restartStartContext(Injector injector, ExtensionContext extensionContext,
+                                        List<ExtensionContext> afterContext) {
+            restarts.incrementAndGet();
+        }
+    }
+}
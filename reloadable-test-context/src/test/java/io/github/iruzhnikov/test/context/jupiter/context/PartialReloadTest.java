@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context;
+
+import io.github.iruzhnikov.test.context.jupiter.context.annotations.ReloadContext;
+import io.github.iruzhnikov.test.context.jupiter.context.annotations.ReloadableTestContext;
+import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import io.github.iruzhnikov.test.context.jupiter.listeners.annotations.DependsOn;
+import io.github.iruzhnikov.test.context.jupiter.listeners.annotations.TestContextListener;
+import lombok.Getter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ReloadableTestContext
+@Isolated("counts restarts of the shared context")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestContextListener(include = PartialReloadTest.Broker.class)
+@TestContextListener(include = PartialReloadTest.Consumer.class)
+@TestContextListener(include = PartialReloadTest.Database.class)
+class PartialReloadTest {
+    private static int broker;
+    private static int consumer;
+    private static int database;
+
+    @Test
+    @Order(1)
+    void countRestarts(Broker broker, Consumer consumer, Database database) {
+        PartialReloadTest.broker = broker.getRestarts().get();
+        PartialReloadTest.consumer = consumer.getRestarts().get();
+        PartialReloadTest.database = database.getRestarts().get();
+    }
+
+    @Test
+    @Order(2)
+    @ReloadContext(value = ReloadContext.When.BEFORE, listeners = Broker.class)
+    void reloadByType(Broker broker, Consumer consumer, Database database) {
+        assertEquals(PartialReloadTest.broker + 1, broker.getRestarts().get());
+        assertEquals(PartialReloadTest.consumer + 1, consumer.getRestarts().get(), "Dependent listener isn't restarted");
+        assertEquals(PartialReloadTest.database, database.getRestarts().get());
+    }
+
+    @Test
+    @Order(3)
+    @ReloadContext(value = ReloadContext.When.BEFORE, tags = "database")
+    void reloadByTag(Broker broker, Consumer consumer, Database database) {
+        assertEquals(PartialReloadTest.broker + 1, broker.getRestarts().get());
+        assertEquals(PartialReloadTest.consumer + 1, consumer.getRestarts().get());
+        assertEquals(PartialReloadTest.database + 1, database.getRestarts().get());
+    }
+
+    public abstract static class CountedListener implements ReloadableTestContextListener {
+        @Getter
+        private final AtomicInteger restarts = new AtomicInteger();
+
+        @Override
+        public void restartStartContext(Injector injector, ExtensionContext extensionContext,
+                                        List<ExtensionContext> afterContext) {
+            restarts.incrementAndGet();
+        }
+    }
+
+    public static class Broker extends CountedListener {
+    }
+
+    @DependsOn(Broker.class)
+    public static class Consumer extends CountedListener {
+    }
+
+    @Tag("database")
+    public static class Database extends CountedListener {
+    }
+}
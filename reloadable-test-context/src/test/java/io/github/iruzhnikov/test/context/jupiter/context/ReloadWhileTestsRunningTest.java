@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.context;
+
+import io.github.iruzhnikov.test.context.jupiter.context.annotations.ReloadContext;
+import io.github.iruzhnikov.test.context.jupiter.context.annotations.ReloadableTestContext;
+import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import io.github.iruzhnikov.test.context.jupiter.listeners.annotations.TestContextListener;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests run concurrently with tests which request reload after themselves,
+ * the context is restarted only when no test uses it
+ */
+@ReloadableTestContext
+@TestContextListener(include = ReloadWhileTestsRunningTest.RunningProbe.class)
+class ReloadWhileTestsRunningTest {
+
+    @SneakyThrows
+    @RepeatedTest(8)
+    void sharedTest() {
+        Thread.sleep(20);
+    }
+
+    @SneakyThrows
+    @RepeatedTest(3)
+    @ReloadContext(ReloadContext.When.AFTER)
+    void reloadAfterTest() {
+        Thread.sleep(10);
+    }
+
+    public static class RunningProbe implements ReloadableTestContextListener {
+        private final AtomicInteger running = new AtomicInteger();
+
+        @Override
+        public void beforeEach(Injector injector, ExtensionContext extensionContext) {
+            running.incrementAndGet();
+        }
+
+        @Override
+        public void afterEach(Injector injector, ExtensionContext extensionContext) {
+            running.decrementAndGet();
+        }
+
+        @Override
+        public void restartStopContext(Injector injector, ExtensionContext extensionContext,
+                                       List<ExtensionContext> afterContext) {
+            if (running.get() > 0) {
+                throw new IllegalStateException("Context is restarted while tests are running: " + running.get());
+            }
+        }
+    }
+}
@@ -24,10 +24,12 @@ import io.github.iruzhnikov.test.context.jupiter.listeners.annotations.TestConte
 import io.github.iruzhnikov.test.context.jupiter.test.ListenersTestUtils;
 import io.github.iruzhnikov.test.context.jupiter.test.MemoryAppender;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.parallel.Isolated;
 
 import static ch.qos.logback.classic.Level.INFO;
 
 @ReloadableTestContext
+@Isolated("checks restarts of the shared context by logs")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @TestContextListener(include = ReloadableTestContextTest.LogAppender.class)
 class ReloadableTestContextTest {
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.context.impl;
+
+import io.github.iruzhnikov.test.context.jupiter.context.ObservedEvent;
+import io.github.iruzhnikov.test.context.jupiter.context.ReloadableTestContextObserver;
+import io.github.iruzhnikov.test.context.jupiter.context.impl.ObserversChannel.Overflow;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObserversChannelTest {
+
+    @Test
+    void eventsObservedInBackgroundUntilFlush() {
+        var observed = new CopyOnWriteArrayList<ObservedEvent>();
+        var channel = new ObserversChannel(() -> List.of(observed::add), 16, Overflow.BLOCK);
+        channel.publish(event("A"));
+        channel.publish(event("B"));
+        channel.flush();
+        assertEquals(List.of("A", "B"), observed.stream().map(ObservedEvent::getUniqueId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void overflowCounted() {
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var observed = new CopyOnWriteArrayList<String>();
+        ReloadableTestContextObserver slow = e -> {
+            entered.countDown();
+            await(release);
+            observed.add(e.getUniqueId());
+        };
+        var channel = new ObserversChannel(() -> List.of(slow), 1, Overflow.COUNT);
+        channel.publish(event("A"));
+        await(entered);
+        channel.publish(event("B"));
+        channel.publish(event("C"));
+        release.countDown();
+        channel.flush();
+        assertEquals(1, channel.getDropped());
+        assertEquals(List.of("A", "B"), observed);
+    }
+
+    @Test
+    void consumerStoppedByClose() {
+        var observed = new CopyOnWriteArrayList<ObservedEvent>();
+        var threads = new CopyOnWriteArrayList<Thread>();
+        var channel = new ObserversChannel(() -> List.of(e -> {
+            threads.add(Thread.currentThread());
+            observed.add(e);
+        }), 16, Overflow.BLOCK);
+        channel.publish(event("A"));
+        channel.close();
+        assertEquals(1, observed.size());
+        assertFalse(threads.get(0).isAlive());
+
+        channel.publish(event("B"));
+        channel.close();
+        assertEquals(2, observed.size());
+        assertNotSame(threads.get(0), threads.get(1));
+    }
+
+    @Test
+    void notObservedWithoutObservers() {
+        assertFalse(new ObserversChannel(List::of, 1, Overflow.BLOCK).isObserved());
+    }
+
+    private static ObservedEvent event(String id) {
+        return new ObservedEvent(ObservedEvent.Type.TEST_METHOD, id, id, null, null, null);
+    }
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context.impl;
+
+import io.github.iruzhnikov.test.context.jupiter.context.impl.ReloadCoordinator.Policy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReloadCoordinatorTest {
+
+    @Test
+    void restartBeforeNextTestByRequestPolicy() {
+        var coordinator = new ReloadCoordinator<String>(Policy.REQUEST, 1, Duration.ZERO);
+        assertFalse(coordinator.isDue(false));
+        coordinator.request("A");
+        assertTrue(coordinator.isDue(true));
+        assertTrue(coordinator.isDue(false));
+    }
+
+    @Test
+    void requestsMergedByCountPolicy() {
+        var coordinator = new ReloadCoordinator<String>(Policy.COUNT, 3, Duration.ZERO);
+        coordinator.request("A");
+        assertFalse(coordinator.isDue(true));
+        coordinator.request("B");
+        assertFalse(coordinator.isDue(true));
+        assertTrue(coordinator.isDue(false), "Not requesting test must get restarted context");
+        coordinator.request("C");
+        assertTrue(coordinator.isDue(true));
+
+        assertEquals(List.of("A", "B", "C"), coordinator.getRequests());
+        coordinator.complete();
+        assertFalse(coordinator.hasRequests());
+        assertEquals(1, coordinator.getReloads());
+        assertEquals(2, coordinator.getMerged());
+    }
+
+    @Test
+    void requestsMergedByWindowPolicy() throws InterruptedException {
+        var coordinator = new ReloadCoordinator<String>(Policy.WINDOW, 1, Duration.ofMillis(500));
+        coordinator.request("A");
+        assertFalse(coordinator.isDue(true));
+        Thread.sleep(600);
+        assertTrue(coordinator.isDue(true));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Generates index of each listener at compile time: methods of listener interfaces, implemented methods
+ * and {@link org.junit.jupiter.api.Order} of listener and its methods.
+ * Index is read by `io.github.iruzhnikov.test.context.jupiter.listeners.ListenerIndex` instead of reflection
+ * <p>
+ * Listeners are not abstract classes which implement interfaces of packages from option
+ * `test.context.index.packages` (comma separated, default `io.github.iruzhnikov.test.context.jupiter`)
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ListenerIndexProcessor.PACKAGES_OPTION)
+public class ListenerIndexProcessor extends AbstractProcessor {
+    public static final String PACKAGES_OPTION = "test.context.index.packages";
+    public static final String LOCATION = "META-INF/test-context/listeners/";
+    private static final String DEFAULT_PACKAGES = "io.github.iruzhnikov.test.context.jupiter";
+    private static final String ORDER = "org.junit.jupiter.api.Order";
+    private static final String CONTEXT_PACKAGE = "io.github.iruzhnikov.test.context.jupiter.context.";
+    /**
+     * Lifecycle callbacks of listener interfaces of the framework whose default methods are empty,
+     * the same list as `ListenerMetadata` applies at runtime
+     */
+    private static final Map<String, Set<String>> NO_OP_DEFAULTS = Map.of(
+            CONTEXT_PACKAGE + "TestContextListener", Set.of(
+                    "beforeStartContext", "startContext", "afterStartContext",
+                    "beforeStopContext", "stopContext", "afterStopContext"),
+            CONTEXT_PACKAGE + "SharedTestContextListener", Set.of("detachContext"),
+            CONTEXT_PACKAGE + "ReloadableTestContextListener", Set.of(
+                    "beforeRestartStopContext", "restartStopContext", "afterRestartStopContext",
+                    "restartStartContext", "afterRestartStartContext",
+                    "beforeAll", "afterAll", "beforeEach", "afterEach",
+                    "beforeAllHandle", "beforeEachHandle", "testMethodHandle", "afterEachHandle", "afterAllHandle"));
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        var packages = Arrays.stream(processingEnv.getOptions().getOrDefault(PACKAGES_OPTION, DEFAULT_PACKAGES)
+                .split(",")).map(String::trim).filter(p -> !p.isEmpty()).collect(Collectors.toList());
+        for (var type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            index(type, packages);
+        }
+        return false;
+    }
+
+    private void index(TypeElement type, List<String> packages) {
+        for (var nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            index(nested, packages);
+        }
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return;
+        }
+        var allInterfaces = new LinkedHashSet<TypeElement>();
+        collectInterfaces(type, allInterfaces);
+        var interfaces = new LinkedHashSet<>(allInterfaces);
+        interfaces.removeIf(i -> packages.stream().noneMatch(p -> i.getQualifiedName().toString().startsWith(p)));
+        if (interfaces.isEmpty()) {
+            return;
+        }
+        var methods = new TreeSet<String>();
+        for (var listenerInterface : interfaces) {
+            ElementFilter.methodsIn(listenerInterface.getEnclosedElements()).stream()
+                    .filter(m -> !m.getModifiers().contains(Modifier.STATIC))
+                    .forEach(m -> methods.add(m.getSimpleName().toString()));
+        }
+        var methodOrders = new LinkedHashMap<String, Integer>();
+        for (var iterator = methods.iterator(); iterator.hasNext(); ) {
+            var method = iterator.next();
+            var orders = getMethodOrders(type, allInterfaces, method);
+            if (orders.size() > 1) {
+                //ambiguous order is reported by reflective metadata at runtime
+                iterator.remove();
+            } else if (orders.size() == 1) {
+                methodOrders.put(method, orders.get(0));
+            }
+        }
+        var index = new LinkedHashMap<String, String>();
+        index.put("methods", String.join(",", methods));
+        index.put("implemented", methods.stream().filter(m -> isImplemented(type, allInterfaces, m)).collect(Collectors.joining(",")));
+        getOrder(type).ifPresent(order -> index.put("order", order.toString()));
+        methodOrders.forEach((method, order) -> index.put("order." + method, order.toString()));
+        write(type, index);
+    }
+
+    private void collectInterfaces(TypeElement type, Set<TypeElement> interfaces) {
+        for (var listenerInterface : type.getInterfaces()) {
+            var element = asTypeElement(listenerInterface);
+            if (element != null && interfaces.add(element)) {
+                collectInterfaces(element, interfaces);
+            }
+        }
+        var superclass = asTypeElement(type.getSuperclass());
+        if (superclass != null) {
+            collectInterfaces(superclass, interfaces);
+        }
+    }
+
+    /**
+     * Method is implemented by class or its superclasses or by default method of interface,
+     * empty default lifecycle callbacks of the framework aren't implementations
+     */
+    private boolean isImplemented(TypeElement type, Set<TypeElement> interfaces, String method) {
+        for (var current = type; current != null; current = asTypeElement(current.getSuperclass())) {
+            var implemented = ElementFilter.methodsIn(current.getEnclosedElements()).stream()
+                    .anyMatch(m -> m.getSimpleName().contentEquals(method) && !m.getModifiers().contains(Modifier.ABSTRACT));
+            if (implemented) {
+                return true;
+            }
+        }
+        return interfaces.stream().anyMatch(i -> isDeclared(i, method, Modifier.DEFAULT)
+                && !NO_OP_DEFAULTS.getOrDefault(i.getQualifiedName().toString(), Set.of()).contains(method));
+    }
+
+    private static boolean isDeclared(TypeElement type, String method, Modifier modifier) {
+        return ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                .anyMatch(m -> m.getSimpleName().contentEquals(method)
+                        && (modifier == null || m.getModifiers().contains(modifier)));
+    }
+
+    /**
+     * Orders of most specific declarations of method like {@link Class#getMethods()}: declarations of class
+     * or its superclasses, or else declarations of interfaces which aren't overridden by their sub interfaces
+     */
+    private List<Integer> getMethodOrders(TypeElement type, Set<TypeElement> interfaces, String method) {
+        for (var current = type; current != null; current = asTypeElement(current.getSuperclass())) {
+            if (isDeclared(current, method, null)) {
+                return getDeclaredOrders(current, method);
+            }
+        }
+        return interfaces.stream().filter(i -> isDeclared(i, method, null))
+                .filter(i -> interfaces.stream().noneMatch(s -> s != i && isDeclared(s, method, null)
+                        && isSubInterface(s, i)))
+                .flatMap(i -> getDeclaredOrders(i, method).stream())
+                .collect(Collectors.toList());
+    }
+
+    private List<Integer> getDeclaredOrders(TypeElement type, String method) {
+        return ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                .filter(m -> m.getSimpleName().contentEquals(method))
+                .map(this::getOrder).flatMap(Optional::stream).collect(Collectors.toList());
+    }
+
+    private boolean isSubInterface(TypeElement sub, TypeElement listenerInterface) {
+        var superInterfaces = new LinkedHashSet<TypeElement>();
+        collectInterfaces(sub, superInterfaces);
+        return superInterfaces.contains(listenerInterface);
+    }
+
+    /**
+     * {@link org.junit.jupiter.api.Order} present directly or as meta annotation
+     */
+    private Optional<Integer> getOrder(Element element) {
+        return getOrder(element, new HashSet<>());
+    }
+
+    private Optional<Integer> getOrder(Element element, Set<Element> visited) {
+        for (var annotation : element.getAnnotationMirrors()) {
+            var annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(ORDER)) {
+                return annotation.getElementValues().entrySet().stream()
+                        .filter(e -> e.getKey().getSimpleName().contentEquals("value"))
+                        .map(e -> (Integer) e.getValue().getValue()).findFirst();
+            }
+            if (visited.add(annotationType)) {
+                var order = getOrder(annotationType, visited);
+                if (order.isPresent()) {
+                    return order;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void write(TypeElement type, Map<String, String> index) {
+        var name = LOCATION + getBinaryName(type) + ".properties";
+        try (var writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", name, type)
+                .openWriter()) {
+            for (var entry : index.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue() + System.lineSeparator());
+            }
+        } catch (FilerException ex) {
+            //already generated in previous round
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Listener index isn't generated: " + ex.getMessage(), type);
+        }
+    }
+
+    private String getBinaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static TypeElement asTypeElement(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) type).asElement();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListenerIndexProcessorTest {
+    private static final String FRAMEWORK = "io.github.iruzhnikov.test.context.jupiter.context";
+
+    @Test
+    void listenerIndexed(@TempDir Path dir) throws IOException {
+        var sources = dir.resolve("sample");
+        Files.createDirectories(sources);
+        var listener = framework(dir, "TestContextListener", "public interface TestContextListener {\n" +
+                "    default void startContext() {}\n" +
+                "    @org.junit.jupiter.api.Order(3) default void stopContext() {}\n" +
+                "}\n");
+        Files.writeString(sources.resolve("StartListener.java"), "package sample;\n" +
+                "import " + FRAMEWORK + ".TestContextListener;\n" +
+                "@org.junit.jupiter.api.Order(5)\n" +
+                "public class StartListener implements TestContextListener {\n" +
+                "    @org.junit.jupiter.api.Order(1) public void startContext() {}\n" +
+                "    public static abstract class Abstract implements TestContextListener {}\n" +
+                "}\n");
+        compile(dir, listener, sources.resolve("StartListener.java"));
+
+        var index = read(dir.resolve("out/" + ListenerIndexProcessor.LOCATION + "sample.StartListener.properties"));
+        assertEquals("startContext,stopContext", index.getProperty("methods"));
+        assertEquals("startContext", index.getProperty("implemented"));
+        assertEquals("5", index.getProperty("order"));
+        assertEquals("1", index.getProperty("order.startContext"));
+        assertEquals("3", index.getProperty("order.stopContext"));
+        assertFalse(Files.exists(dir.resolve("out/" + ListenerIndexProcessor.LOCATION + FRAMEWORK
+                + ".TestContextListener.properties")));
+        assertFalse(Files.exists(dir.resolve("out/" + ListenerIndexProcessor.LOCATION
+                + "sample.StartListener$Abstract.properties")));
+    }
+
+    @Test
+    void defaultOfIntermediateInterfaceImplemented(@TempDir Path dir) throws IOException {
+        var sources = dir.resolve("sample");
+        Files.createDirectories(sources);
+        var listener = framework(dir, "TestContextListener", "public interface TestContextListener {\n" +
+                "    default void startContext() {}\n" +
+                "    default void stopContext() {}\n" +
+                "}\n");
+        Files.writeString(sources.resolve("DatabaseListener.java"), "package sample;\n" +
+                "public interface DatabaseListener extends " + FRAMEWORK + ".TestContextListener {\n" +
+                "    @Override default void startContext() {}\n" +
+                "}\n");
+        Files.writeString(sources.resolve("Database.java"), "package sample;\n" +
+                "public class Database implements DatabaseListener {\n" +
+                "}\n");
+        compile(dir, listener, sources.resolve("DatabaseListener.java"), sources.resolve("Database.java"));
+
+        var index = read(dir.resolve("out/" + ListenerIndexProcessor.LOCATION + "sample.Database.properties"));
+        assertEquals("startContext,stopContext", index.getProperty("methods"));
+        assertEquals("startContext", index.getProperty("implemented"));
+    }
+
+    @Test
+    void defaultOutOfLifecycleCallbacksImplemented(@TempDir Path dir) throws IOException {
+        var sources = dir.resolve("sample");
+        Files.createDirectories(sources);
+        var listener = framework(dir, "ReloadableTestContextListener", "public interface ReloadableTestContextListener {\n" +
+                "    default void beforeEach() {}\n" +
+                "    default boolean isDirty() { return true; }\n" +
+                "}\n");
+        Files.writeString(sources.resolve("Reloaded.java"), "package sample;\n" +
+                "public class Reloaded implements " + FRAMEWORK + ".ReloadableTestContextListener {\n" +
+                "}\n");
+        compile(dir, listener, sources.resolve("Reloaded.java"));
+
+        var index = read(dir.resolve("out/" + ListenerIndexProcessor.LOCATION + "sample.Reloaded.properties"));
+        assertEquals("beforeEach,isDirty", index.getProperty("methods"));
+        assertEquals("isDirty", index.getProperty("implemented"));
+    }
+
+    @Test
+    void orderOfOverriddenInterfaceMethodIgnored(@TempDir Path dir) throws IOException {
+        var sources = dir.resolve("sample");
+        Files.createDirectories(sources);
+        var listener = framework(dir, "TestContextListener", "public interface TestContextListener {\n" +
+                "    @org.junit.jupiter.api.Order(3) default void startContext() {}\n" +
+                "}\n");
+        Files.writeString(sources.resolve("ReorderedListener.java"), "package sample;\n" +
+                "public interface ReorderedListener extends " + FRAMEWORK + ".TestContextListener {\n" +
+                "    @Override default void startContext() {}\n" +
+                "}\n");
+        Files.writeString(sources.resolve("Reordered.java"), "package sample;\n" +
+                "public class Reordered implements ReorderedListener {\n" +
+                "}\n");
+        compile(dir, listener, sources.resolve("ReorderedListener.java"), sources.resolve("Reordered.java"));
+
+        var index = read(dir.resolve("out/" + ListenerIndexProcessor.LOCATION + "sample.Reordered.properties"));
+        assertEquals("startContext", index.getProperty("methods"));
+        assertNull(index.getProperty("order.startContext"));
+    }
+
+    /**
+     * Listener interface of the framework package with the given body
+     */
+    private static Path framework(Path dir, String name, String body) throws IOException {
+        var sources = Files.createDirectories(dir.resolve(FRAMEWORK.replace('.', '/')));
+        return Files.writeString(sources.resolve(name + ".java"), "package " + FRAMEWORK + ";\n" + body);
+    }
+
+    private static void compile(Path dir, Path... sources) throws IOException {
+        var out = Files.createDirectories(dir.resolve("out"));
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        try (var fileManager = compiler.getStandardFileManager(null, null, null)) {
+            var task = compiler.getTask(null, fileManager, null,
+                    List.of("-d", out.toString(), "-classpath", System.getProperty("java.class.path"),
+                            "-A" + ListenerIndexProcessor.PACKAGES_OPTION + "=" + FRAMEWORK),
+                    null, fileManager.getJavaFileObjects(sources));
+            task.setProcessors(List.of(new ListenerIndexProcessor()));
+            assertTrue(task.call());
+        }
+    }
+
+    private static Properties read(Path file) throws IOException {
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+}
@@ -17,8 +17,11 @@ public class TestContextExecutionListener implements TestExecutionListener {
 
     @Override
     public void testPlanExecutionStarted(TestPlan testPlan) {
-        var started = testPlan.countTestIdentifiers(this::startExecution);
+        var fabric = ManagerFabric.getInstance();
+        var started = fabric.getAnnotationsScanner().register(testPlan).entrySet().stream()
+                .mapToInt(e -> fabric.getManager(e.getKey()).startExecutions(e.getValue())).sum();
         log.info("Started test context executions: {}", started);
+        ManagerFabric.getInstance().getManagers().forEach(TestContextManager::warmUpContext);
     }
 
     @Override
@@ -46,6 +49,7 @@ public class TestContextExecutionListener implements TestExecutionListener {
     public void testPlanExecutionFinished(TestPlan testPlan) {
         var stopped = testPlan.countTestIdentifiers(this::stopExecution);
         log.info("Stopped test context executions: {}", stopped);
+        ManagerFabric.getInstance().getManagers().forEach(TestContextManager::finishTestPlan);
     }
 
     private boolean startExecution(TestIdentifier testIdentifier) {
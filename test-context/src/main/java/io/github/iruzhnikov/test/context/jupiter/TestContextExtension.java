@@ -51,7 +51,7 @@ public interface TestContextExtension<T extends TestContext, I extends Injector>
     }
 
     default TestContextManager getTestContextManager(ExtensionContext context) {
-        var manager = ManagerFabric.getInstance().getManager(context);
+        var manager = ManagerFabric.getInstance().getManager(context).leaseReplica(context);
         manager.startContext();
         return manager;
     }
@@ -8,31 +8,50 @@ import io.github.iruzhnikov.test.context.jupiter.injector.InjectorResolver;
 import io.github.iruzhnikov.test.context.jupiter.injector.impl.InjectorImpl;
 import io.github.iruzhnikov.test.context.jupiter.listeners.ListenersManager;
 import io.github.iruzhnikov.test.context.jupiter.listeners.impl.ListenersManagerImpl;
+import io.github.iruzhnikov.test.context.jupiter.managers.Generations;
 import io.github.iruzhnikov.test.context.jupiter.managers.ManagerFabric;
-import io.github.iruzhnikov.test.context.jupiter.managers.annotations.ManagerId;
+import io.github.iruzhnikov.test.context.jupiter.managers.ReplicaPool;
+import io.github.iruzhnikov.test.context.jupiter.managers.Replicas;
 import io.github.iruzhnikov.test.context.jupiter.scanner.AnnotationsScanner;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.platform.engine.ConfigurationParameters;
 import org.junit.platform.launcher.LauncherDiscoveryRequest;
 import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
 import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Making same context for all running test classes in application or module
+ * <p>
+ * You can run test classes in parallel on several replicas of the context by config `test.context.replicas=4`,
+ * each replica has own {@link TestContext}, {@link Injector} and {@link ListenersManager}
+ * and it is leased by test class until the class is finished
+ * <p>
+ * You can enable generations of the context by config `test.context.generations=true`,
+ * new generation is started by {@link #renewContext(ExtensionContext)} alongside leased generations
  */
 @Slf4j
 public class TestContextManager implements InjectorResolver {
@@ -40,8 +59,13 @@ public class TestContextManager implements InjectorResolver {
     public static final String LISTENERS_MANAGER_CLASS_PROPERTY = ManagerFabric.BASE_PROPERTY + ".listeners.manager";
     public static final String INJECTOR_CLASS_PROPERTY = ManagerFabric.BASE_PROPERTY + ".listeners.manager";
     public static final String TEST_CONTEXT_CLOSABLE_PROPERTY = ManagerFabric.BASE_PROPERTY + ".closable";
+    public static final String TEST_CONTEXT_WARM_UP_PROPERTY = ManagerFabric.BASE_PROPERTY + ".warmup";
+    public static final String TEST_CONTEXT_REPLICAS_PROPERTY = ManagerFabric.BASE_PROPERTY + ".replicas";
+    public static final String TEST_CONTEXT_GENERATIONS_PROPERTY = ManagerFabric.BASE_PROPERTY + ".generations";
 
     private final Boolean isClosableContext;
+    private final Boolean isWarmUpContext;
+    private final AtomicReference<CompletableFuture<Void>> warmUp = new AtomicReference<>();
     private final ConcurrentHashMap<String, Boolean> stoppedDescriptors = new ConcurrentHashMap<>();
     private final LauncherDiscoveryRequest launcherDiscoveryRequest;
     @Getter
@@ -51,32 +75,105 @@ public class TestContextManager implements InjectorResolver {
     private TestContext testContext;
     private Injector injector;
     private ListenersManager listenersManager;
+    @Nullable
+    private final Replicas<TestContextManager> replicas;
+    @Nullable
+    private final Generations<TestContextManager> generations;
 
     private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Enabled and overridden {@link TestContextExtension} types of tests, they are updated by test registration
+     * and shared with replicas
+     */
+    private final Set<Class<?>> contextExtensions;
+    private final Set<Class<?>> overriddenExtensions;
 
     public TestContextManager(String id, AnnotationsScanner annotationScanner) {
+        this(id, annotationScanner, null);
+    }
+
+    /**
+     * @param parent manager of replica, null for not replica
+     */
+    protected TestContextManager(String id, AnnotationsScanner annotationScanner, @Nullable TestContextManager parent) {
+        var isReplica = parent != null;
         this.id = id;
         this.annotationScanner = annotationScanner;
         launcherDiscoveryRequest = LauncherDiscoveryRequestBuilder.request().build();
         //read configuration from org.junit.platform.engine.ConfigurationParameters.CONFIG_FILE_NAME
         isClosableContext = getConfig().getBoolean(TEST_CONTEXT_CLOSABLE_PROPERTY).orElse(true);
+        isWarmUpContext = getConfig().getBoolean(TEST_CONTEXT_WARM_UP_PROPERTY).orElse(false);
+        var replicasCount = isReplica ? 1 : getConfig().get(TEST_CONTEXT_REPLICAS_PROPERTY, Integer::parseInt).orElse(1);
+        var isGenerations = !isReplica && getConfig().getBoolean(TEST_CONTEXT_GENERATIONS_PROPERTY).orElse(false);
+        if (replicasCount > 1 && isGenerations) {
+            throw new IllegalArgumentException("Replicas and generations of context '" + id + "' can't be enabled together");
+        }
+        var isShared = getConfig().getBoolean(TestContextImpl.SHARED_PROPERTY).orElse(false);
+        if (isShared && (replicasCount > 1 || isGenerations)) {
+            throw new IllegalArgumentException("Shared context '" + id + "' can't be enabled together with replicas or generations");
+        }
+        generations = isGenerations ? new Generations<>(id, this::newReplica, replica -> {
+            replica.awaitWarmUp(replica.warmUp.get());
+            replica.stopContext();
+        }) : null;
+        replicas = replicasCount > 1 ? new ReplicaPool<>(replicasCount, this::newReplica) : generations;
+        if (isReplica) {
+            contextExtensions = parent.contextExtensions;
+            overriddenExtensions = parent.overriddenExtensions;
+        } else {
+            contextExtensions = ConcurrentHashMap.newKeySet();
+            overriddenExtensions = ConcurrentHashMap.newKeySet();
+            subscribeTestAnnotations(ExtendWith.class, added -> added.stream().flatMap(a -> Arrays.stream(a.value()))
+                    .filter(TestContextExtension.class::isAssignableFrom).forEach(contextExtensions::add));
+            subscribeTestAnnotations(OverrideTestContextExtension.class,
+                    added -> added.forEach(a -> overriddenExtensions.add(a.rewrite())));
+        }
+    }
+
+    protected TestContextManager newReplica() {
+        return new TestContextManager(id, annotationScanner, this);
+    }
+
+    /**
+     * Lease replica of context by test class, it is current manager when replicas are disabled
+     */
+    public TestContextManager leaseReplica(ExtensionContext context) {
+        return replicas == null ? this : replicas.lease(context);
+    }
+
+    /**
+     * Start new generation of context for test context, previous generation is stopped after its last test context
+     */
+    public TestContextManager renewContext(ExtensionContext context) {
+        return getGenerations().renew(context, TestContextManager::startContext);
+    }
+
+    /**
+     * Start new generation of context for next test contexts
+     */
+    public TestContextManager renewContext() {
+        return getGenerations().renew((String) null, TestContextManager::startContext);
+    }
+
+    private Generations<TestContextManager> getGenerations() {
+        if (generations == null) {
+            throw new IllegalStateException("Generations of context '" + id + "' aren't enabled");
+        }
+        return generations;
     }
 
     protected boolean stopExecution(String uniqueId) {
         stoppedDescriptors.computeIfPresent(uniqueId, (s, b) -> true);
+        if (isClosableContext && !stoppedDescriptors.containsValue(false)) {
+            //don't stop context in warming up process
+            awaitWarmUp(warmUp.get());
+        }
 
         lock.lock();
         try {
             if (!stoppedDescriptors.containsValue(false)) {
                 stoppedDescriptors.clear();
-                if (isClosableContext) {
-                    var stopResult = testContext != null && testContext.stop();
-                    testContext = null;
-                    injector = null;
-                    listenersManager = null;
-                    return stopResult;
-                }
-                return false;
+                return isClosableContext && stopContext();
             }
             return false;
         } finally {
@@ -84,11 +181,68 @@ public class TestContextManager implements InjectorResolver {
         }
     }
 
+    protected boolean stopContext() {
+        if (replicas != null) {
+            var stopResult = false;
+            for (var replica : replicas.getReplicas()) {
+                replica.awaitWarmUp(replica.warmUp.get());
+                stopResult |= replica.stopContext();
+            }
+            if (generations != null) {
+                generations.awaitStopped();
+            }
+            return stopResult;
+        }
+        lock.lock();
+        try {
+            warmUp.set(null);
+            var stopResult = testContext != null && testContext.stop();
+            if (listenersManager != null) {
+                listenersManager.close();
+            }
+            testContext = null;
+            injector = null;
+            listenersManager = null;
+            return stopResult;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finish started contexts on finish of test plan, see {@link TestContext#finish()}
+     */
+    public void finishTestPlan() {
+        if (replicas != null) {
+            replicas.getReplicas().forEach(TestContextManager::finishTestPlan);
+            return;
+        }
+        lock.lock();
+        try {
+            if (testContext != null) {
+                testContext.finish();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     protected void startExecution(String uniqueId) {
         stoppedDescriptors.putIfAbsent(uniqueId, false);
     }
 
+    /**
+     * Start executions of identifiers registered by {@link AnnotationsScanner#register(TestPlan)}
+     */
+    public int startExecutions(Collection<TestIdentifier> testIdentifiers) {
+        testIdentifiers.forEach(i -> startExecution(i.getUniqueId()));
+        return testIdentifiers.size();
+    }
+
     public TestContext getContext() {
+        if (replicas != null) {
+            throw notLeasedReplica();
+        }
         lock.lock();
         try {
             if (testContext == null) {
@@ -101,19 +255,77 @@ public class TestContextManager implements InjectorResolver {
     }
 
     protected void startContext() {
+        if (replicas != null) {
+            //replica is started by leasing
+            return;
+        }
+        var future = warmUp.get();
+        if (future != null) {
+            ManagerFabric.getInstance().getStartScheduler().demand(id);
+            try {
+                future.join();
+            } catch (CompletionException ex) {
+                warmUp.compareAndSet(future, null);
+                ExceptionUtils.rethrow(ex.getCause());
+            }
+        }
+        internalStartContext(true);
+    }
+
+    /**
+     * Start context in background thread, {@link #startContext()} will wait it
+     * <p>
+     * Enabled by config `test.context.warmup=true`
+     */
+    protected void warmUpContext() {
+        if (replicas != null) {
+            replicas.getReplicas().forEach(TestContextManager::warmUpContext);
+            return;
+        }
+        if (isWarmUpContext && isContextStopped() && warmUp.get() == null) {
+            var future = new CompletableFuture<Void>();
+            if (warmUp.compareAndSet(null, future)) {
+                log.info("Warming up test context '{}' ...", id);
+                new BasicThreadFactory.Builder().namingPattern("test-context-warmup-" + id).daemon(true).build()
+                        .newThread(() -> {
+                            try {
+                                internalStartContext(false);
+                                future.complete(null);
+                            } catch (Throwable ex) {
+                                log.error("Crash warming up test context '{}'", id, ex);
+                                future.completeExceptionally(ex);
+                            }
+                        }).start();
+            }
+        }
+    }
+
+    private void awaitWarmUp(@Nullable CompletableFuture<Void> future) {
+        if (future != null) {
+            try {
+                future.join();
+            } catch (CompletionException ignored) {
+                //already logged, context isn't started
+            }
+        }
+    }
+
+    private void internalStartContext(boolean isDemanded) {
         if (getContext().isStopped()) {
-            getInjector();
-            getListenersManager().fireListenersLoaded();
-            testContextConflictAssertion();
-            getContext().start();
+            ManagerFabric.getInstance().getStartScheduler().start(id, isDemanded, () -> {
+                if (getContext().isStopped()) {
+                    getInjector();
+                    getListenersManager().fireListenersLoaded();
+                    testContextConflictAssertion();
+                    getContext().start();
+                }
+            });
         }
     }
 
     private void testContextConflictAssertion() {
-        var disabled = getTestAnnotations(OverrideTestContextExtension.class);
-        var found = getTestAnnotations(ExtendWith.class).stream()
-                .flatMap(a -> Arrays.stream(a.value())).filter(TestContextExtension.class::isAssignableFrom)
-                .distinct().filter(c -> disabled.stream().noneMatch(r -> r.rewrite().equals(c))).collect(Collectors.toList());
+        var found = contextExtensions.stream()
+                .filter(c -> !overriddenExtensions.contains(c)).collect(Collectors.toList());
 
         if (found.size() != 1) {
             throw new IllegalArgumentException("Must enabled only one TestContextExtension! Current enabled: " +
@@ -122,10 +334,16 @@ public class TestContextManager implements InjectorResolver {
     }
 
     public boolean isContextStopped() {
+        if (replicas != null) {
+            return replicas.getReplicas().stream().allMatch(TestContextManager::isContextStopped);
+        }
         return testContext == null || testContext.isStopped();
     }
 
     public Injector getInjector() {
+        if (replicas != null) {
+            throw notLeasedReplica();
+        }
         lock.lock();
         try {
             if (injector == null) {
@@ -138,6 +356,9 @@ public class TestContextManager implements InjectorResolver {
     }
 
     public ListenersManager getListenersManager() {
+        if (replicas != null) {
+            throw notLeasedReplica();
+        }
         lock.lock();
         try {
             if (listenersManager == null) {
@@ -150,6 +371,11 @@ public class TestContextManager implements InjectorResolver {
         }
     }
 
+    private IllegalStateException notLeasedReplica() {
+        return new IllegalStateException("Context '" + id + "' has replicas, replica is leased by test context, " +
+                "see leaseReplica(ExtensionContext)");
+    }
+
     /**
      * read parameters from file of junit properties {@link org.junit.platform.engine.ConfigurationParameters#CONFIG_FILE_NAME}
      */
@@ -162,8 +388,16 @@ public class TestContextManager implements InjectorResolver {
     }
 
     public <T extends Annotation> List<T> getTestAnnotations(Class<T> annotation) {
-        return getAnnotationScanner().getAnnotations(annotation,
-                s -> getAnnotationScanner().getAnnotations(s, ManagerId.class).anyMatch(a -> id.equals(a.value())));
+        return getAnnotationScanner().getManagerAnnotations(id, annotation);
+    }
+
+    /**
+     * Subscribe to annotations of tests of the manager, see {@link AnnotationsScanner#subscribe(String, Class, Consumer)}
+     *
+     * @return unsubscribe action
+     */
+    public <T extends Annotation> Runnable subscribeTestAnnotations(Class<T> annotation, Consumer<List<T>> added) {
+        return getAnnotationScanner().subscribe(id, annotation, added);
     }
 
     @Override
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context;
+
+/**
+ * {@link TestContextListener} started on first injection by {@link io.github.iruzhnikov.test.context.jupiter.injector.Injector}
+ * of the listener or of type resolved by it (when it implements {@link io.github.iruzhnikov.test.context.jupiter.injector.InjectorResolver})
+ * <p>
+ * Listener is started eagerly when other not lazy listener depends on it
+ * <p>
+ * Started listener is stopped together with context
+ */
+public interface LazyTestContextListener extends TestContextListener {
+}
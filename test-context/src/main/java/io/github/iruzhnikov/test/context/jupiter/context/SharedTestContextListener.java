@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context;
+
+import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+
+import java.util.Map;
+
+/**
+ * {@link TestContextListener} which started context is shared between test processes on the same machine
+ * (e.g. Surefire or Gradle forks), enabled by config `test.context.shared=true`
+ * <p>
+ * First process starts the context and publishes {@link #exportContext(Injector)} of each listener,
+ * other processes don't start and stop the listener, they only attach to the published context
+ * <p>
+ * Listeners which don't implement the interface are started in each process
+ */
+public interface SharedTestContextListener extends TestContextListener {
+
+    /**
+     * Connection details of the started context, which are published for other processes
+     */
+    Map<String, String> exportContext(Injector injector);
+
+    /**
+     * Called instead of start methods in process attached to context started by other process,
+     * the listener makes only client-side objects by exported details
+     */
+    void attachContext(Injector injector, Map<String, String> exported);
+
+    /**
+     * Called instead of stop methods in process attached to context started by other process
+     */
+    default void detachContext(Injector injector) {
+    }
+}
@@ -28,4 +28,16 @@ public interface TestContext {
     boolean stop();
 
     boolean isStopped();
+
+    /**
+     * Start listener which start is deferred, see {@link LazyTestContextListener}
+     */
+    default void startLazyListener(Object listener) {
+    }
+
+    /**
+     * Called on finish of test plan, not closable context is still started
+     */
+    default void finish() {
+    }
 }
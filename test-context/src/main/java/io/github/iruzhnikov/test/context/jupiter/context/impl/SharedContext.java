@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context.impl;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Coordination of one running context between processes on the same machine
+ * <p>
+ * State of the context is stored in properties file guarded by lock file:
+ * process which starts the context (owner), processes attached to it and exported details of listeners.
+ * Owner stops the context after all attached processes are detached or finished
+ * <p>
+ * Owner and attached contexts are identified by pid and number of instance in the process
+ */
+@Slf4j
+public class SharedContext {
+    private static final String OWNER = "owner";
+    private static final String ATTACHED = "attached";
+    private static final String EXPORTED = "exported.";
+    private static final long AWAIT_DETACHED_MILLIS = 500;
+    private static final AtomicLong INSTANCES = new AtomicLong();
+    /**
+     * Lock file can't be locked twice by one process, so instances of the process are serialized before it
+     */
+    private static final Map<Path, Semaphore> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final String member = ProcessHandle.current().pid() + ":" + INSTANCES.incrementAndGet();
+    private final Path lockFile;
+    private final Path stateFile;
+    @Nullable
+    private FileChannel channel;
+    @Nullable
+    private FileLock lock;
+    private final Semaphore processLock;
+    private boolean isLocked;
+    /**
+     * Current process started the context
+     */
+    @Getter
+    private volatile boolean isOwner;
+    /**
+     * Current process is attached to the context started by other process
+     */
+    @Getter
+    private volatile boolean isAttached;
+    private volatile Properties state = new Properties();
+
+    public SharedContext(Path dir, String id) {
+        var name = id.replaceAll("[^\\w.-]", "_");
+        lockFile = dir.resolve(name + ".lock");
+        stateFile = dir.resolve(name + ".properties");
+        processLock = PROCESS_LOCKS.computeIfAbsent(lockFile.toAbsolutePath().normalize(), f -> new Semaphore(1));
+    }
+
+    /**
+     * Attach to the context when it is started by alive process,
+     * else current process becomes owner and must {@link #publish(Map)} the context after start.
+     * Other processes wait publishing
+     *
+     * @return current process is attached
+     */
+    public boolean attach() {
+        lock();
+        try {
+            var current = readState();
+            var owner = current.getProperty(OWNER);
+            if (owner != null && !owner.equals(member) && isAlive(owner)) {
+                var attached = getAttached(current);
+                attached.add(member);
+                setAttached(current, attached);
+                writeState(current);
+                state = current;
+                isAttached = true;
+                log.info("Attached to TestContext started by process {}", owner);
+            } else {
+                isOwner = true;
+            }
+            return isAttached;
+        } finally {
+            if (!isOwner) {
+                unlock();
+            }
+        }
+    }
+
+    /**
+     * Publish started context by owner
+     *
+     * @param exported details of listeners by {@link #getExportedKey(Object, String)}
+     */
+    public void publish(Map<String, String> exported) {
+        try {
+            var current = new Properties();
+            current.setProperty(OWNER, member);
+            setAttached(current, Set.of());
+            exported.forEach((key, value) -> current.setProperty(EXPORTED + key, value));
+            writeState(current);
+            state = current;
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Release the context without publishing, when owner crashes on start
+     */
+    public void abort() {
+        if (isOwner) {
+            isOwner = false;
+            unlock();
+        }
+    }
+
+    /**
+     * Detach current process from the context
+     */
+    public void detach() {
+        if (!isAttached) {
+            return;
+        }
+        lock();
+        try {
+            var current = readState();
+            if (String.valueOf(state.getProperty(OWNER)).equals(current.getProperty(OWNER))) {
+                var attached = getAttached(current);
+                attached.remove(member);
+                setAttached(current, attached);
+                writeState(current);
+            }
+            isAttached = false;
+            log.info("Detached from TestContext started by process {}", state.getProperty(OWNER));
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Wait by owner while other processes are attached to the context,
+     * finished processes are skipped. After it new processes don't attach to the context
+     *
+     * @param timeout max waiting, unlimited by null
+     * @return processes which are attached after timeout
+     */
+    @SneakyThrows(InterruptedException.class)
+    public Set<Long> awaitDetached(@Nullable Duration timeout) {
+        if (!isOwner) {
+            return Set.of();
+        }
+        var deadline = timeout == null ? Long.MAX_VALUE : System.nanoTime() + timeout.toNanos();
+        var logged = false;
+        while (true) {
+            lock();
+            Set<String> attached;
+            try {
+                attached = getAttached(readState());
+                if (attached.isEmpty() || System.nanoTime() >= deadline) {
+                    Files.deleteIfExists(stateFile);
+                    isOwner = false;
+                    return attached.stream().map(SharedContext::getPid).collect(Collectors.toCollection(TreeSet::new));
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException("Can't delete state of shared TestContext " + stateFile, ex);
+            } finally {
+                unlock();
+            }
+            if (!logged) {
+                log.info("Waiting for detaching processes from TestContext: {}", attached);
+                logged = true;
+            }
+            Thread.sleep(AWAIT_DETACHED_MILLIS);
+        }
+    }
+
+    /**
+     * Exported details of listener by owner
+     */
+    public Map<String, String> getExported(Object listener) {
+        var prefix = EXPORTED + getExportedKey(listener, "");
+        return state.stringPropertyNames().stream()
+                .filter(key -> key.startsWith(prefix))
+                .collect(Collectors.toMap(key -> key.substring(prefix.length()), state::getProperty));
+    }
+
+    public static String getExportedKey(Object listener, String key) {
+        return listener.getClass().getName() + "." + key;
+    }
+
+    private Set<String> getAttached(Properties current) {
+        return Arrays.stream(current.getProperty(ATTACHED, "").split(","))
+                .filter(value -> !value.isBlank())
+                .filter(this::isAlive)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private void setAttached(Properties current, Set<String> attached) {
+        current.setProperty(ATTACHED, String.join(",", attached));
+    }
+
+    private boolean isAlive(String member) {
+        return ProcessHandle.of(getPid(member)).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    private static long getPid(String member) {
+        var separator = member.indexOf(':');
+        return Long.parseLong(separator < 0 ? member : member.substring(0, separator));
+    }
+
+    private Properties readState() {
+        var current = new Properties();
+        if (Files.exists(stateFile)) {
+            try (Reader reader = Files.newBufferedReader(stateFile)) {
+                current.load(reader);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Can't read state of shared TestContext " + stateFile, ex);
+            }
+        }
+        return current;
+    }
+
+    private void writeState(Properties current) {
+        try (Writer writer = Files.newBufferedWriter(stateFile)) {
+            current.store(writer, "Shared TestContext");
+        } catch (IOException ex) {
+            throw new IllegalStateException("Can't write state of shared TestContext " + stateFile, ex);
+        }
+    }
+
+    private void lock() {
+        processLock.acquireUninterruptibly();
+        isLocked = true;
+        try {
+            Files.createDirectories(lockFile.getParent());
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lock = channel.lock();
+        } catch (IOException | OverlappingFileLockException ex) {
+            unlock();
+            throw new IllegalStateException("Can't lock shared TestContext " + lockFile, ex);
+        }
+    }
+
+    private void unlock() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ex) {
+            log.warn("Can't unlock shared TestContext " + lockFile, ex);
+        } finally {
+            lock = null;
+            channel = null;
+            if (isLocked) {
+                isLocked = false;
+                processLock.release();
+            }
+        }
+    }
+}
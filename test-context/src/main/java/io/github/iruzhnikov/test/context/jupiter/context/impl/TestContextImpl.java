@@ -1,25 +1,67 @@
 package io.github.iruzhnikov.test.context.jupiter.context.impl;
 
 import io.github.iruzhnikov.test.context.jupiter.TestContextManager;
+import io.github.iruzhnikov.test.context.jupiter.context.LazyTestContextListener;
+import io.github.iruzhnikov.test.context.jupiter.context.SharedTestContextListener;
 import io.github.iruzhnikov.test.context.jupiter.context.TestContext;
 import io.github.iruzhnikov.test.context.jupiter.context.TestContextListener;
 import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import io.github.iruzhnikov.test.context.jupiter.listeners.ListenerEvent;
+import io.github.iruzhnikov.test.context.jupiter.listeners.ListenersGraph;
+import io.github.iruzhnikov.test.context.jupiter.managers.ManagerFabric;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static io.github.iruzhnikov.test.context.jupiter.context.TestContextListener.Methods.*;
 
 /**
  * You can disable auto context closing by config `test.context.closable=false` in `{@link org.junit.platform.engine.ConfigurationParameters#CONFIG_FILE_NAME}`
+ * <p>
+ * You can start independent listeners concurrently by config `test.context.start.threads=4`,
+ * dependencies between listeners are declared by {@link io.github.iruzhnikov.test.context.jupiter.listeners.annotations.DependsOn}
+ * <p>
+ * You can stop independent listeners concurrently by config `test.context.stop.threads=4`,
+ * listeners are stopped after all listeners which depend on them.
+ * Deadline of stopping each listener is configured in seconds by `test.context.stop.timeout=60`
+ * <p>
+ * Start of {@link LazyTestContextListener} is deferred to first injection
+ * <p>
+ * You can share started context between test processes on the same machine by config `test.context.shared=true`,
+ * see {@link SharedTestContextListener}. State of the context is stored in `test.context.shared.dir=target/test-context`,
+ * process which started the context waits for detaching other processes before stopping it
+ * maximum `test.context.shared.timeout` seconds
  */
 @Slf4j
 public class TestContextImpl implements TestContext {
+    public static final String START_THREADS_PROPERTY = ManagerFabric.BASE_PROPERTY + ".start.threads";
+    public static final String STOP_THREADS_PROPERTY = ManagerFabric.BASE_PROPERTY + ".stop.threads";
+    public static final String STOP_TIMEOUT_PROPERTY = ManagerFabric.BASE_PROPERTY + ".stop.timeout";
+    public static final String SHARED_PROPERTY = ManagerFabric.BASE_PROPERTY + ".shared";
+    public static final String SHARED_DIR_PROPERTY = ManagerFabric.BASE_PROPERTY + ".shared.dir";
+    public static final String SHARED_TIMEOUT_PROPERTY = ManagerFabric.BASE_PROPERTY + ".shared.timeout";
+
     @Getter
-    private boolean isStopped = true;
+    private volatile boolean isStopped = true;
     @Getter
     private final TestContextManager manager;
+    /**
+     * Listeners which aren't stopped by deadline in last stopping
+     */
+    @Getter
+    private final List<TestContextListener> notStoppedListeners = new ArrayList<>();
+    private final Set<Object> deferredListeners = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final ReentrantLock lazyLock = new ReentrantLock();
+    @Nullable
+    private volatile SharedContext sharedContext;
 
     public TestContextImpl(TestContextManager manager) {
         this.manager = manager;
@@ -29,21 +71,112 @@ public class TestContextImpl implements TestContext {
     @Override
     public void start() {
         if (isStopped) {
+            //check dependencies before starting
+            var graph = getListenersGraph(START_CONTEXT);
+            deferredListeners.clear();
+            deferredListeners.addAll(graph.getListeners());
+            var shared = getManager().getConfig().getBoolean(SHARED_PROPERTY).orElse(false);
+            //shared listeners are exported after start of the context
+            graph.filter(l -> !(l instanceof LazyTestContextListener) || shared && l instanceof SharedTestContextListener)
+                    .getListeners().forEach(deferredListeners::remove);
+            sharedContext = shared ? new SharedContext(getManager().getConfig().get(SHARED_DIR_PROPERTY)
+                    .map(Path::of).orElse(Path.of("target", "test-context")), getManager().getId()) : null;
+            if (sharedContext != null) {
+                sharedContext.attach();
+            }
             try {
-                fireListeners(BEFORE_START_CONTEXT, l -> l.beforeStartContext(injector()));
+                fireListeners(BEFORE_START_CONTEXT, l -> {
+                    if (!isAttached(l)) {
+                        l.beforeStartContext(injector());
+                    }
+                });
                 isStopped = false;
-                internalStart();
-                fireListeners(AFTER_START_CONTEXT, l -> l.afterStartContext(injector()));
+                internalStart(graph);
+                fireListeners(AFTER_START_CONTEXT, l -> {
+                    if (!isAttached(l)) {
+                        l.afterStartContext(injector());
+                    }
+                });
+                if (sharedContext != null && sharedContext.isOwner()) {
+                    sharedContext.publish(exportContext(graph));
+                }
             } catch (Throwable ex) {
                 isStopped = true;
+                if (sharedContext != null) {
+                    sharedContext.abort();
+                    sharedContext.detach();
+                }
                 log.error("Crash starting TestContext");
                 throw ex;
             }
         }
     }
 
-    protected void internalStart() {
-        fireListeners(START_CONTEXT, l -> l.startContext(injector()));
+    /**
+     * @param graph start graph of listeners checked by {@link #start()}
+     */
+    protected void internalStart(ListenersGraph<TestContextListener> graph) {
+        var threads = getManager().getConfig().get(START_THREADS_PROPERTY, Integer::parseInt).orElse(1);
+        graph.filter(l -> !isDeferred(l))
+                .fire(l -> {
+                    if (isAttached(l)) {
+                        ((SharedTestContextListener) l).attachContext(injector(), sharedContext.getExported(l));
+                    } else {
+                        l.startContext(injector());
+                    }
+                }, threads, getManager().getListenersManager().getExecutor());
+    }
+
+    private Map<String, String> exportContext(ListenersGraph<TestContextListener> graph) {
+        var exported = new HashMap<String, String>();
+        graph.getListeners().stream()
+                .filter(SharedTestContextListener.class::isInstance)
+                .map(SharedTestContextListener.class::cast)
+                .forEach(l -> l.exportContext(injector())
+                        .forEach((key, value) -> exported.put(SharedContext.getExportedKey(l, key), value)));
+        return exported;
+    }
+
+    /**
+     * Listener is attached to the context started by other process
+     */
+    protected boolean isAttached(Object listener) {
+        var shared = sharedContext;
+        return shared != null && shared.isAttached() && listener instanceof SharedTestContextListener;
+    }
+
+    @Override
+    public void startLazyListener(Object listener) {
+        if (isStopped || !isDeferred(listener)) {
+            return;
+        }
+        lazyLock.lock();
+        try {
+            if (isStopped || !isDeferred(listener)) {
+                return;
+            }
+            var listeners = getListenersGraph(START_CONTEXT).filter(l -> l == listener).getSortedListeners()
+                    .stream().filter(this::isDeferred).collect(Collectors.toList());
+            log.info("Starting lazy listeners: " + listeners.stream()
+                    .map(l -> l.getClass().getName()).collect(Collectors.joining(", ")));
+            //listener can inject itself in starting
+            listeners.forEach(deferredListeners::remove);
+            try {
+                listeners.forEach(l -> l.beforeStartContext(injector()));
+                listeners.forEach(l -> l.startContext(injector()));
+                listeners.forEach(l -> l.afterStartContext(injector()));
+            } catch (Throwable ex) {
+                deferredListeners.addAll(listeners);
+                log.error("Crash starting lazy listeners");
+                throw ex;
+            }
+        } finally {
+            lazyLock.unlock();
+        }
+    }
+
+    protected boolean isDeferred(Object listener) {
+        return deferredListeners.contains(listener);
     }
 
     @Override
@@ -51,11 +184,29 @@ public class TestContextImpl implements TestContext {
         if (!isStopped()) {
             try {
                 log.info("Stopping TestContext ...");
-                fireListeners(BEFORE_STOP_CONTEXT, l -> l.beforeStopContext(injector()));
+                notStoppedListeners.clear();
+                awaitDetached();
+                fireStopListeners(BEFORE_STOP_CONTEXT, l -> {
+                    if (!isAttached(l)) {
+                        l.beforeStopContext(injector());
+                    }
+                });
                 internalStop();
                 isStopped = true;
-                fireListeners(AFTER_STOP_CONTEXT, l -> l.afterStopContext(injector()));
-                log.info("Stopped TestContext");
+                fireStopListeners(AFTER_STOP_CONTEXT, l -> {
+                    if (!isAttached(l)) {
+                        l.afterStopContext(injector());
+                    }
+                });
+                if (sharedContext != null) {
+                    sharedContext.detach();
+                }
+                if (notStoppedListeners.isEmpty()) {
+                    log.info("Stopped TestContext");
+                } else {
+                    log.warn("Partially stopped TestContext, not stopped listeners: " + notStoppedListeners.stream()
+                            .map(l -> l.getClass().getName()).distinct().collect(Collectors.joining(", ")));
+                }
                 return true;
             } catch (Throwable ex) {
                 isStopped = false;
@@ -67,11 +218,59 @@ public class TestContextImpl implements TestContext {
     }
 
     protected void internalStop() {
-        fireListeners(STOP_CONTEXT, l -> l.stopContext(injector()));
+        fireStopListeners(STOP_CONTEXT, l -> {
+            if (isAttached(l)) {
+                ((SharedTestContextListener) l).detachContext(injector());
+            } else {
+                l.stopContext(injector());
+            }
+        });
+    }
+
+    private void awaitDetached() {
+        if (sharedContext != null) {
+            var timeout = getManager().getConfig().get(SHARED_TIMEOUT_PROPERTY, Long::parseLong)
+                    .map(Duration::ofSeconds).orElse(null);
+            var attached = sharedContext.awaitDetached(timeout);
+            if (!attached.isEmpty()) {
+                log.warn("TestContext is stopped with attached processes: " + attached);
+            }
+        }
+    }
+
+    protected void fireStopListeners(@TestContextListener.MagicConstant String methodName,
+                                     Consumer<TestContextListener> consumer) {
+        var config = getManager().getConfig();
+        var threads = config.get(STOP_THREADS_PROPERTY, Integer::parseInt).orElse(1);
+        var timeout = config.get(STOP_TIMEOUT_PROPERTY, Long::parseLong).map(Duration::ofSeconds).orElse(null);
+        //stop orders aren't checked against dependencies, dependents are stopped first
+        var listenersManager = getManager().getListenersManager();
+        var listeners = listenersManager.getListeners(TestContextListener.class, methodName);
+        notStoppedListeners.addAll(new ListenersGraph<>(listeners).filter(l -> !isDeferred(l)).reversed()
+                .fire(consumer, threads, listenersManager.getExecutor(), timeout));
     }
 
     protected <T> void fireListeners(String methodName, Class<T> listenerType, Consumer<T> consumer) {
-        getManager().getListenersManager().fireListeners(listenerType, methodName, consumer);
+        var listenersManager = getManager().getListenersManager();
+        if (listenersManager.getImplementingListeners(listenerType, methodName).isEmpty()) {
+            return;
+        }
+        listenersManager.fireListeners(listenerType, methodName, l -> {
+            if (!isDeferred(l)) {
+                consumer.accept(l);
+            }
+        });
+    }
+
+    /**
+     * Fire pre-bound event, listeners are filtered only while some of them are deferred
+     */
+    protected <T> void fireListeners(ListenerEvent<T> event, Object first, Object second, Object third) {
+        if (deferredListeners.isEmpty()) {
+            getManager().getListenersManager().fireListeners(event, first, second, third);
+        } else {
+            fireListeners(event.getMethodName(), event.getListenerType(), l -> event.invoke(l, first, second, third));
+        }
     }
 
     private void fireListeners(@TestContextListener.MagicConstant String methodName,
@@ -79,6 +278,12 @@ public class TestContextImpl implements TestContext {
         fireListeners(methodName, TestContextListener.class, consumer);
     }
 
+    protected ListenersGraph<TestContextListener> getListenersGraph(@TestContextListener.MagicConstant String methodName) {
+        var listenersManager = getManager().getListenersManager();
+        return new ListenersGraph<>(listenersManager.getListeners(TestContextListener.class, methodName),
+                l -> listenersManager.getOrder(l, methodName, TestContextListener.class));
+    }
+
     protected Injector injector() {
         return getManager().getInjector();
     }
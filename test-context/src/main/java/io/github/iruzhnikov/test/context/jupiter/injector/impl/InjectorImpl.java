@@ -37,14 +37,23 @@ public class InjectorImpl implements Injector {
         if (type instanceof Class) {
             var candidate = this.<T>getListenerCandidate(type);
             if (candidate.isPresent()) {
-                return candidate.get();
+                return started(candidate.get());
             }
         }
         return getCandidate(type, getResolvers(), l -> l.supportsParameter(injector, type))
+                .map(this::started)
                 .map(l -> l.<T>resolveParameter(injector, type))
                 .orElse(null);
     }
 
+    /**
+     * Start of {@link io.github.iruzhnikov.test.context.jupiter.context.LazyTestContextListener} is deferred to injection
+     */
+    private <T> T started(T candidate) {
+        manager.getContext().startLazyListener(candidate);
+        return candidate;
+    }
+
     @NotNull
     @SuppressWarnings("unchecked")
     private <T> Optional<T> getListenerCandidate(Type type) {
@@ -62,8 +71,9 @@ public class InjectorImpl implements Injector {
     @Override
     public <T> T resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
         var type = InjectorResolver.getType(parameterContext);
-        return this.<T>getListenerCandidate(type).orElseGet(() -> getCandidate(type, getResolvers(),
+        return this.<T>getListenerCandidate(type).map(this::started).orElseGet(() -> getCandidate(type, getResolvers(),
                 l -> l.supportsParameter(this, parameterContext, extensionContext))
+                .map(this::started)
                 .orElseThrow().resolveParameter(this, parameterContext, extensionContext));
     }
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Listener method bound to invoker once, firing of the event doesn't capture arguments into lambda.
+ * Event has up to three arguments, missing arguments are ignored.
+ * <p>
+ * Events are constants, usually enum constants which keep invoker of {@link #bind(Class, String, Class[])}
+ * in final field, listeners of event are resolved once per published listeners by {@link #getIndex()}
+ */
+public interface ListenerEvent<T> {
+    int ARGUMENTS = 3;
+
+    Class<T> getListenerType();
+
+    String getMethodName();
+
+    /**
+     * Unique index of event, see {@link #nextIndex()}
+     */
+    int getIndex();
+
+    void invoke(T listener, Object first, Object second, Object third);
+
+    static <T> ListenerEvent<T> of(Class<T> listenerType, String methodName, Class<?>... parameterTypes) {
+        return new Bound<>(listenerType, methodName, bind(listenerType, methodName, parameterTypes));
+    }
+
+    static int nextIndex() {
+        return Bound.INDEXES.getAndIncrement();
+    }
+
+    /**
+     * Invoker of listener method with type (Object, Object, Object, Object) void
+     */
+    static MethodHandle bind(Class<?> listenerType, String methodName, Class<?>... parameterTypes) {
+        if (parameterTypes.length > ARGUMENTS) {
+            throw new IllegalArgumentException("Event " + methodName + " has more than " + ARGUMENTS + " arguments");
+        }
+        var invokerType = MethodType.genericMethodType(ARGUMENTS + 1).changeReturnType(void.class);
+        try {
+            var handle = MethodHandles.publicLookup()
+                    .findVirtual(listenerType, methodName, MethodType.methodType(void.class, parameterTypes));
+            handle = MethodHandles.dropArguments(handle, parameterTypes.length + 1,
+                    invokerType.parameterList().subList(parameterTypes.length + 1, ARGUMENTS + 1));
+            return handle.asType(invokerType);
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new IllegalArgumentException("Listener method " + listenerType.getName() + "." + methodName
+                    + " isn't found", ex);
+        }
+    }
+
+    /**
+     * Call invoker of {@link #bind(Class, String, Class[])}, errors of listener are rethrown
+     */
+    static void invoke(MethodHandle invoker, Object listener, Object first, Object second, Object third) {
+        try {
+            invoker.invokeExact(listener, first, second, third);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Getter
+    final class Bound<T> implements ListenerEvent<T> {
+        private static final AtomicInteger INDEXES = new AtomicInteger();
+
+        private final Class<T> listenerType;
+        private final String methodName;
+        private final int index = nextIndex();
+        @Getter(AccessLevel.NONE)
+        private final MethodHandle invoker;
+
+        private Bound(Class<T> listenerType, String methodName, MethodHandle invoker) {
+            this.listenerType = listenerType;
+            this.methodName = methodName;
+            this.invoker = invoker;
+        }
+
+        @Override
+        public void invoke(T listener, Object first, Object second, Object third) {
+            ListenerEvent.invoke(invoker, listener, first, second, third);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import org.junit.jupiter.api.Order;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Index of listener generated at compile time by `test-context-processor-jupiter`,
+ * listeners without index are inspected by reflection
+ */
+public class ListenerIndex {
+    public static final String LOCATION = "META-INF/test-context/listeners/";
+    private static final ClassValue<Optional<ListenerIndex>> INDEXES = new ClassValue<>() {
+        @Override
+        protected Optional<ListenerIndex> computeValue(Class<?> type) {
+            return read(type);
+        }
+    };
+
+    private final Set<String> methods;
+    private final Set<String> implemented;
+    private final Map<String, Integer> orders = new HashMap<>();
+    private final int order;
+
+    private ListenerIndex(Properties index) {
+        methods = split(index.getProperty("methods"));
+        implemented = split(index.getProperty("implemented"));
+        order = Optional.ofNullable(index.getProperty("order")).map(Integer::parseInt).orElse(Order.DEFAULT);
+        for (var method : methods) {
+            Optional.ofNullable(index.getProperty("order." + method))
+                    .ifPresent(o -> orders.put(method, Integer.parseInt(o)));
+        }
+    }
+
+    public static Optional<ListenerIndex> find(Class<?> listenerType) {
+        return INDEXES.get(listenerType);
+    }
+
+    /**
+     * Order of listener class
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+     * Method is method of indexed listener interfaces
+     */
+    public boolean isIndexed(String methodName) {
+        return methods.contains(methodName);
+    }
+
+    public boolean isImplemented(String methodName) {
+        return implemented.contains(methodName);
+    }
+
+    /**
+     * Order of listener method by {@link Order} of method or else by {@link Order} of listener class
+     */
+    public int getOrder(String methodName) {
+        return orders.getOrDefault(methodName, order);
+    }
+
+    private static Optional<ListenerIndex> read(Class<?> type) {
+        var classLoader = type.getClassLoader();
+        if (classLoader == null) {
+            return Optional.empty();
+        }
+        try (InputStream stream = classLoader.getResourceAsStream(LOCATION + type.getName() + ".properties")) {
+            if (stream == null) {
+                return Optional.empty();
+            }
+            var index = new Properties();
+            index.load(stream);
+            return Optional.of(new ListenerIndex(index));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Set<String> split(String value) {
+        if (value == null || value.isEmpty()) {
+            return Set.of();
+        }
+        return Set.of(value.split(","));
+    }
+}
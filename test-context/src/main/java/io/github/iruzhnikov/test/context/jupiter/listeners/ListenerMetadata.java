@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import io.github.iruzhnikov.test.context.jupiter.context.SharedTestContextListener;
+import io.github.iruzhnikov.test.context.jupiter.context.TestContextListener;
+import org.junit.jupiter.api.Order;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+import static io.github.iruzhnikov.test.context.jupiter.context.TestContextListener.Methods.*;
+import static org.junit.platform.commons.util.AnnotationUtils.findAnnotation;
+
+/**
+ * Orders and implemented methods of listener class, they are read once per class
+ * from {@link ListenerIndex}, listeners without index or methods out of index are inspected by reflection
+ */
+public class ListenerMetadata {
+    /**
+     * Lifecycle callbacks of listener interfaces of the framework whose default methods are empty,
+     * other default methods (e.g. ReloadableTestContextListener.isDirty) are implementations.
+     * The same list is applied by ListenerIndexProcessor
+     */
+    private static final Map<String, Set<String>> NO_OP_DEFAULTS = Map.of(
+            TestContextListener.class.getName(), Set.of(
+                    BEFORE_START_CONTEXT, START_CONTEXT, AFTER_START_CONTEXT,
+                    BEFORE_STOP_CONTEXT, STOP_CONTEXT, AFTER_STOP_CONTEXT),
+            SharedTestContextListener.class.getName(), Set.of("detachContext"),
+            "io.github.iruzhnikov.test.context.jupiter.context.ReloadableTestContextListener", Set.of(
+                    "beforeRestartStopContext", "restartStopContext", "afterRestartStopContext",
+                    "restartStartContext", "afterRestartStartContext",
+                    "beforeAll", "afterAll", "beforeEach", "afterEach",
+                    "beforeAllHandle", "beforeEachHandle", "testMethodHandle", "afterEachHandle", "afterAllHandle"));
+    private static final ClassValue<ListenerMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected ListenerMetadata computeValue(Class<?> type) {
+            return new ListenerMetadata(type, ListenerIndex.find(type));
+        }
+    };
+
+    private final Class<?> type;
+    private final Optional<ListenerIndex> index;
+    /**
+     * Lazy, it isn't computed while index covers requested methods
+     */
+    private volatile Reflection reflection;
+
+    private ListenerMetadata(Class<?> type, Optional<ListenerIndex> index) {
+        this.type = type;
+        this.index = index;
+    }
+
+    /**
+     * Empty default lifecycle callback of the framework, see {@link #NO_OP_DEFAULTS}
+     */
+    private static boolean isNoOpDefault(Method method) {
+        return method.isDefault() && NO_OP_DEFAULTS.getOrDefault(method.getDeclaringClass().getName(), Set.of())
+                .contains(method.getName());
+    }
+
+    public static ListenerMetadata of(Class<?> listenerType) {
+        return METADATA.get(listenerType);
+    }
+
+    /**
+     * Metadata resolved by reflection only, generated index isn't applied
+     */
+    static ListenerMetadata reflective(Class<?> listenerType) {
+        return new ListenerMetadata(listenerType, Optional.empty());
+    }
+
+    /**
+     * Order of listener class
+     */
+    public int getOrder() {
+        return index.isPresent() ? index.get().getOrder() : getReflection().order;
+    }
+
+    /**
+     * Order of listener method by {@link Order} of method or else by {@link Order} of listener class
+     */
+    public int getOrder(String methodName, Class<?> listenerType) {
+        var indexed = index.filter(i -> i.isIndexed(methodName));
+        if (indexed.isPresent()) {
+            return indexed.get().getOrder(methodName);
+        }
+        var reflected = getReflection();
+        if (!reflected.methods.contains(methodName)) {
+            throw new IllegalArgumentException("Not existed method name! Method: '" + methodName +
+                    "' in type: '" + listenerType.getCanonicalName() + "'.");
+        }
+        if (reflected.ambiguousOrders.contains(methodName)) {
+            throw new IllegalArgumentException("Support only one method annotated by Order! " +
+                    "Method: '" + methodName + "', Class: '" + type + "'");
+        }
+        return reflected.methodOrders.getOrDefault(methodName, reflected.order);
+    }
+
+    /**
+     * Method is implemented by listener, no-op default methods of listener interfaces aren't implementations
+     */
+    public boolean isImplemented(String methodName) {
+        var indexed = index.filter(i -> i.isIndexed(methodName));
+        if (indexed.isPresent()) {
+            return indexed.get().isImplemented(methodName);
+        }
+        return getReflection().implemented.contains(methodName);
+    }
+
+    /**
+     * Listener class is inspected by reflection
+     */
+    boolean isReflected() {
+        return reflection != null;
+    }
+
+    private Reflection getReflection() {
+        var result = reflection;
+        if (result == null) {
+            //concurrent inspections give equal results
+            result = new Reflection(type);
+            reflection = result;
+        }
+        return result;
+    }
+
+    private static class Reflection {
+        private final int order;
+        private final Set<String> methods = new HashSet<>();
+        private final Set<String> implemented = new HashSet<>();
+        private final Map<String, Integer> methodOrders = new HashMap<>();
+        /**
+         * Methods with several declarations annotated by {@link Order}
+         */
+        private final Set<String> ambiguousOrders = new HashSet<>();
+
+        private Reflection(Class<?> type) {
+            order = findAnnotation(type, Order.class).map(Order::value).orElse(Order.DEFAULT);
+            for (Method method : type.getMethods()) {
+                var name = method.getName();
+                methods.add(name);
+                if (!isNoOpDefault(method)) {
+                    implemented.add(name);
+                }
+                var methodOrder = findAnnotation(method, Order.class);
+                if (methodOrder.isPresent() && methodOrders.putIfAbsent(name, methodOrder.get().value()) != null) {
+                    ambiguousOrders.add(name);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import io.github.iruzhnikov.test.context.jupiter.listeners.annotations.DependsOn;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.platform.commons.util.AnnotationUtils.findAnnotation;
+
+/**
+ * Dependency graph of listeners declared by {@link DependsOn}
+ * <p>
+ * Orders and dependencies are checked on creation, so a broken graph is reported before any listener is fired
+ */
+@Slf4j
+public class ListenersGraph<T> {
+    private final List<T> listeners;
+    private final List<Set<Integer>> dependencies = new ArrayList<>();
+    private final List<Set<Integer>> dependents = new ArrayList<>();
+
+    /**
+     * Graph which is fired {@link #reversed()}, dependents go first whatever their order,
+     * so orders aren't checked against dependencies
+     *
+     * @param listeners listeners sorted by {@link org.junit.jupiter.api.Order}
+     */
+    public ListenersGraph(List<T> listeners) {
+        this(listeners, null);
+    }
+
+    /**
+     * @param listeners listeners sorted by {@link org.junit.jupiter.api.Order}
+     * @param order     order of listener for fired method, dependency must not be ordered after its dependent
+     */
+    public ListenersGraph(List<T> listeners, @Nullable ToIntFunction<T> order) {
+        this.listeners = List.copyOf(listeners);
+        for (int i = 0; i < this.listeners.size(); i++) {
+            dependencies.add(new TreeSet<>());
+            dependents.add(new TreeSet<>());
+        }
+        for (int i = 0; i < this.listeners.size(); i++) {
+            var listener = this.listeners.get(i);
+            var dependsOn = findAnnotation(listener.getClass(), DependsOn.class);
+            if (dependsOn.isPresent()) {
+                for (Class<?> dependency : dependsOn.get().value()) {
+                    addDependency(i, dependency, order);
+                }
+            }
+        }
+        assertNoCycles();
+    }
+
+    private ListenersGraph(List<T> listeners, List<Set<Integer>> dependencies, List<Set<Integer>> dependents) {
+        this.listeners = listeners;
+        this.dependencies.addAll(dependencies);
+        this.dependents.addAll(dependents);
+    }
+
+    private void addDependency(int index, Class<?> dependency, @Nullable ToIntFunction<T> order) {
+        var listener = listeners.get(index);
+        boolean found = false;
+        for (int j = 0; j < listeners.size(); j++) {
+            var candidate = listeners.get(j);
+            if (j != index && dependency.isAssignableFrom(candidate.getClass())) {
+                if (order != null && order.applyAsInt(candidate) > order.applyAsInt(listener)) {
+                    throw new IllegalArgumentException("Listener '" + listener.getClass().getName() +
+                            "' depends on '" + candidate.getClass().getName() + "' but ordered before it!");
+                }
+                dependencies.get(index).add(j);
+                dependents.get(j).add(index);
+                found = true;
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("Listener '" + listener.getClass().getName() +
+                    "' depends on not registered listener type '" + dependency.getName() + "'!");
+        }
+    }
+
+    private void assertNoCycles() {
+        var sorted = getSortedListeners();
+        if (sorted.size() != listeners.size()) {
+            var visited = new HashSet<Integer>();
+            for (int i = 0; i < listeners.size(); i++) {
+                var cycle = findCycle(i, new ArrayDeque<>(), visited);
+                if (cycle != null) {
+                    throw new IllegalArgumentException("Listeners dependency cycle: " + cycle.stream()
+                            .map(j -> listeners.get(j).getClass().getName())
+                            .collect(Collectors.joining(" -> ")));
+                }
+            }
+        }
+    }
+
+    private List<Integer> findCycle(int index, Deque<Integer> path, Set<Integer> visited) {
+        if (path.contains(index)) {
+            var cycle = new ArrayList<Integer>();
+            var iterator = path.descendingIterator();
+            boolean inCycle = false;
+            while (iterator.hasNext()) {
+                var next = iterator.next();
+                inCycle |= next == index;
+                if (inCycle) {
+                    cycle.add(next);
+                }
+            }
+            cycle.add(index);
+            return cycle;
+        }
+        if (!visited.add(index)) {
+            return null;
+        }
+        path.push(index);
+        for (int dependency : dependencies.get(index)) {
+            var cycle = findCycle(dependency, path, visited);
+            if (cycle != null) {
+                return cycle;
+            }
+        }
+        path.pop();
+        return null;
+    }
+
+    public List<T> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Graph for stopping: listeners are fired after all listeners which depend on them
+     */
+    public ListenersGraph<T> reversed() {
+        return new ListenersGraph<>(listeners, dependents, dependencies);
+    }
+
+    /**
+     * Graph of matched listeners with all them dependencies
+     */
+    public ListenersGraph<T> filter(Predicate<T> predicate) {
+        var kept = new boolean[listeners.size()];
+        for (int i = 0; i < listeners.size(); i++) {
+            if (predicate.test(listeners.get(i))) {
+                keep(i, kept);
+            }
+        }
+        var indexes = new int[listeners.size()];
+        var result = new ArrayList<T>();
+        for (int i = 0; i < listeners.size(); i++) {
+            indexes[i] = kept[i] ? result.size() : -1;
+            if (kept[i]) {
+                result.add(listeners.get(i));
+            }
+        }
+        var resultDependencies = new ArrayList<Set<Integer>>();
+        var resultDependents = new ArrayList<Set<Integer>>();
+        for (int i = 0; i < listeners.size(); i++) {
+            if (kept[i]) {
+                resultDependencies.add(filter(dependencies.get(i), indexes));
+                resultDependents.add(filter(dependents.get(i), indexes));
+            }
+        }
+        return new ListenersGraph<>(List.copyOf(result), resultDependencies, resultDependents);
+    }
+
+    private void keep(int index, boolean[] kept) {
+        if (!kept[index]) {
+            kept[index] = true;
+            dependencies.get(index).forEach(dependency -> keep(dependency, kept));
+        }
+    }
+
+    private Set<Integer> filter(Set<Integer> source, int[] indexes) {
+        var result = new TreeSet<Integer>();
+        for (int index : source) {
+            if (indexes[index] >= 0) {
+                result.add(indexes[index]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Listeners sorted by dependencies, independent listeners keep them {@link org.junit.jupiter.api.Order}
+     */
+    public List<T> getSortedListeners() {
+        var result = new ArrayList<T>(listeners.size());
+        var remaining = getDependenciesCount();
+        var ready = new TreeSet<Integer>();
+        for (int i = 0; i < listeners.size(); i++) {
+            if (remaining[i] == 0) {
+                ready.add(i);
+            }
+        }
+        while (!ready.isEmpty()) {
+            int index = ready.pollFirst();
+            result.add(listeners.get(index));
+            for (int dependent : dependents.get(index)) {
+                if (--remaining[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fire listeners, each listener is fired after all of them dependencies
+     * <p>
+     * When one listener crashed then other running listeners are cancelled and exception is rethrown
+     *
+     * @param threads  max count of concurrently fired listeners, one thread means firing in caller thread
+     * @param executor not bounded executor of concurrently fired listeners
+     */
+    public void fire(Consumer<T> consumer, int threads, Executor executor) {
+        fire(consumer, threads, executor, null);
+    }
+
+    /**
+     * Fire listeners, each listener is fired after all of them dependencies
+     * <p>
+     * When one listener crashed then other running listeners are cancelled and exception is rethrown
+     * <p>
+     * When listener isn't finished by deadline then it is interrupted, its stack is logged
+     * and it is handled as fired
+     *
+     * @param threads  max count of concurrently fired listeners
+     * @param executor not bounded executor: interrupted listener can ignore interruption and hold its thread
+     * @param timeout  deadline of each listener, without deadline and with one thread listeners are fired in caller thread
+     * @return listeners which aren't finished by deadline
+     */
+    public List<T> fire(Consumer<T> consumer, int threads, Executor executor, @Nullable Duration timeout) {
+        if (timeout == null && (threads <= 1 || listeners.size() <= 1)) {
+            getSortedListeners().forEach(consumer);
+            return List.of();
+        }
+        var completion = new ExecutorCompletionService<Integer>(executor);
+        var running = new HashMap<Future<Integer>, Integer>();
+        var deadlines = new HashMap<Integer, Long>();
+        var workers = new ConcurrentHashMap<Integer, Thread>();
+        var expired = new ArrayList<T>();
+        try {
+            var remaining = getDependenciesCount();
+            var ready = new TreeSet<Integer>();
+            for (int i = 0; i < listeners.size(); i++) {
+                if (remaining[i] == 0) {
+                    ready.add(i);
+                }
+            }
+            int fired = 0;
+            while (fired < listeners.size()) {
+                while (!ready.isEmpty() && running.size() < Math.max(threads, 1)) {
+                    int index = ready.pollFirst();
+                    running.put(submit(completion, index, consumer, workers), index);
+                    if (timeout != null) {
+                        deadlines.put(index, System.nanoTime() + timeout.toNanos());
+                    }
+                }
+                var future = timeout == null
+                        ? completion.take()
+                        : completion.poll(getNextDeadline(deadlines) - System.nanoTime(), TimeUnit.NANOSECONDS);
+                var firedIndexes = future == null
+                        ? expire(running, deadlines, workers, timeout, expired)
+                        : getFired(future, running);
+                for (int index : firedIndexes) {
+                    deadlines.remove(index);
+                    fired++;
+                    for (int dependent : dependents.get(index)) {
+                        if (--remaining[dependent] == 0) {
+                            ready.add(dependent);
+                        }
+                    }
+                }
+            }
+            return expired;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Listeners firing interrupted", ex);
+        } finally {
+            running.keySet().forEach(f -> f.cancel(true));
+        }
+    }
+
+    private List<Integer> expire(Map<Future<Integer>, Integer> running, Map<Integer, Long> deadlines,
+                                 Map<Integer, Thread> workers, Duration timeout, List<T> expired) {
+        var now = System.nanoTime();
+        var result = new ArrayList<Integer>();
+        for (var iterator = running.entrySet().iterator(); iterator.hasNext(); ) {
+            var entry = iterator.next();
+            int index = entry.getValue();
+            if (deadlines.get(index) - now <= 0) {
+                var listener = listeners.get(index);
+                var worker = workers.get(index);
+                var stack = worker == null ? new StackTraceElement[0] : worker.getStackTrace();
+                if (entry.getKey().cancel(true)) {
+                    log.error("Listener '{}' isn't finished in {}, it is skipped. Stack of '{}':{}",
+                            listener.getClass().getName(), timeout, worker == null ? "<none>" : worker.getName(),
+                            Arrays.stream(stack).map(e -> System.lineSeparator() + "\tat " + e)
+                                    .collect(Collectors.joining()));
+                    expired.add(listener);
+                    iterator.remove();
+                    result.add(index);
+                }
+            }
+        }
+        return result;
+    }
+
+    private long getNextDeadline(Map<Integer, Long> deadlines) {
+        var now = System.nanoTime();
+        return deadlines.values().stream().min(Comparator.comparingLong(d -> d - now)).orElse(now);
+    }
+
+    private Future<Integer> submit(CompletionService<Integer> completion, int index, Consumer<T> consumer,
+                                   Map<Integer, Thread> workers) {
+        return completion.submit(() -> {
+            workers.put(index, Thread.currentThread());
+            try {
+                consumer.accept(listeners.get(index));
+            } finally {
+                workers.remove(index);
+            }
+            return index;
+        });
+    }
+
+    private List<Integer> getFired(Future<Integer> future, Map<Future<Integer>, Integer> running)
+            throws InterruptedException {
+        var index = running.remove(future);
+        if (index == null) {
+            //finished after deadline
+            return List.of();
+        }
+        try {
+            future.get();
+        } catch (ExecutionException ex) {
+            ExceptionUtils.rethrow(ex.getCause());
+        }
+        return List.of(index);
+    }
+
+    private int[] getDependenciesCount() {
+        var result = new int[listeners.size()];
+        for (int i = 0; i < listeners.size(); i++) {
+            result[i] = dependencies.get(i).size();
+        }
+        return result;
+    }
+}
@@ -1,17 +1,15 @@
 package io.github.iruzhnikov.test.context.jupiter.listeners;
 
-import org.apache.commons.collections4.IterableUtils;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Order;
 import org.junit.platform.commons.util.ClassLoaderUtils;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.util.Comparator.comparingInt;
-import static org.junit.platform.commons.util.AnnotationUtils.findAnnotation;
-import static org.junit.platform.commons.util.AnnotationUtils.isAnnotated;
 
 public interface ListenersManager {
 
@@ -21,49 +19,71 @@ public interface ListenersManager {
 
     void fireListenersLoaded();
 
+    /**
+     * Release resources of the manager, it is called after stop of the context
+     */
+    default void close() {
+    }
+
     Set<Class<?>> getRegisteredListenerTypes();
 
+    /**
+     * Threads of concurrently fired listeners, they are released by {@link #close()}
+     */
+    ExecutorService getExecutor();
+
     List<Object> getContextListeners();
 
+    /**
+     * Listeners which implement method, default methods of listener interfaces are no-op and aren't fired
+     */
+    default <T> List<T> getImplementingListeners(Class<T> listenerClass, String methodName) {
+        return getListeners(listenerClass, methodName).stream()
+                .filter(l -> isImplemented(l, methodName))
+                .collect(Collectors.toList());
+    }
+
     default <T> void fireListeners(Class<T> listenerClass, String methodName, Consumer<T> consumer) {
-        getListeners(listenerClass, methodName).forEach(consumer);
+        getImplementingListeners(listenerClass, methodName).forEach(consumer);
+    }
+
+    /**
+     * Fire pre-bound event, arguments are passed to listeners without capturing lambda
+     */
+    default <T> void fireListeners(ListenerEvent<T> event, Object first, Object second, Object third) {
+        fireListeners(event.getListenerType(), event.getMethodName(), l -> event.invoke(l, first, second, third));
+    }
+
+    default boolean isImplemented(Object listener, String methodName) {
+        return ListenerMetadata.of(listener.getClass()).isImplemented(methodName);
     }
 
     @NotNull
     default <T> List<T> loadListeners(Class<T> listenersType) {
-        List<T> contextListeners;
-        Iterable<T> listeners = ServiceLoader.load(listenersType, ClassLoaderUtils.getDefaultClassLoader());
-        contextListeners = IterableUtils.toList(listeners);
-        contextListeners.sort(comparingInt(value ->
-                findAnnotation(value.getClass(), Order.class).map(Order::value).orElse(Order.DEFAULT)));
+        var contextListeners = ServiceProviders.load(listenersType, ClassLoaderUtils.getDefaultClassLoader());
+        contextListeners.sort(comparingInt(value -> ListenerMetadata.of(value.getClass()).getOrder()));
         return contextListeners;
     }
 
     @NotNull
     default <T> List<T> makeSortedListenersList(String methodName, Class<T> listenerType, List<?> contextListeners) {
-        var result = new ArrayList<>(contextListeners);
-        return result.stream()
-                .filter(o -> o != null && listenerType.isAssignableFrom(o.getClass()))
-                .map(listenerType::cast)
-                .sorted(comparingInt(value -> {
-                    var m = Arrays.stream(value.getClass().getMethods())
-                            .filter(method -> method.getName().equals(methodName))
-                            .collect(Collectors.toList());
-                    if (m.isEmpty()) {
-                        throw new IllegalArgumentException("Not existed method name! Method: '" + methodName +
-                                "' in type: '" + listenerType.getCanonicalName() + "'.");
-                    }
-                    m = m.stream().filter(method -> isAnnotated(method, Order.class))
-                            .collect(Collectors.toList());
-                    if (m.size() > 1) {
-                        throw new IllegalArgumentException("Support only one method annotated by Order! " +
-                                "Method: '" + methodName + "', Class: '" + value.getClass() + "'");
-                    }
-                    var byMethod = !m.isEmpty()
-                            ? findAnnotation(m.get(0), Order.class)
-                            : Optional.<Order>empty();
-                    return byMethod.or(() -> findAnnotation(value.getClass(), Order.class))
-                            .map(Order::value).orElse(Order.DEFAULT);
-                })).collect(Collectors.toList());
+        var result = new ArrayList<T>();
+        for (var listener : contextListeners) {
+            if (listener != null && listenerType.isAssignableFrom(listener.getClass())) {
+                result.add(listenerType.cast(listener));
+            }
+        }
+        //order is resolved once for each listener, not on each comparison
+        var orders = new IdentityHashMap<T, Integer>();
+        result.forEach(l -> orders.put(l, getOrder(l, methodName, listenerType)));
+        result.sort(comparingInt(orders::get));
+        return result;
+    }
+
+    /**
+     * Order of listener method by {@link Order} of method or else by {@link Order} of listener class
+     */
+    default int getOrder(Object listener, String methodName, Class<?> listenerType) {
+        return ListenerMetadata.of(listener.getClass()).getOrder(methodName, listenerType);
     }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import lombok.experimental.UtilityClass;
+import org.junit.platform.commons.util.ReflectionUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Provider types of {@link ServiceLoader} are discovered once per class loader,
+ * each {@link ListenersManager} only instantiates them
+ */
+@UtilityClass
+public class ServiceProviders {
+    private final Map<ClassLoader, Map<Class<?>, List<Class<?>>>> providers =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @return cached provider types in order of service files
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<Class<? extends T>> getProviderTypes(Class<T> service, ClassLoader classLoader) {
+        var byService = providers.computeIfAbsent(classLoader, l -> new ConcurrentHashMap<>());
+        return (List<Class<? extends T>>) (List<?>) byService.computeIfAbsent(service, s ->
+                ServiceLoader.load(s, classLoader).stream().map(ServiceLoader.Provider::type)
+                        .collect(Collectors.toUnmodifiableList()));
+    }
+
+    /**
+     * @return new instances of cached provider types
+     */
+    public <T> List<T> load(Class<T> service, ClassLoader classLoader) {
+        return getProviderTypes(service, classLoader).stream()
+                .map(ReflectionUtils::newInstance)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.listeners.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Listener types which must be started before annotated listener
+ * <p>
+ * Use it with {@link org.junit.jupiter.api.Order}: dependency can't be ordered after annotated listener
+ * <p>
+ * Listeners without dependencies between them are started concurrently,
+ * see {@link io.github.iruzhnikov.test.context.jupiter.context.impl.TestContextImpl#START_THREADS_PROPERTY}
+ */
+@Inherited
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DependsOn {
+    Class<?>[] value();
+}
@@ -1,69 +1,112 @@
 package io.github.iruzhnikov.test.context.jupiter.listeners.impl;
 
 import io.github.iruzhnikov.test.context.jupiter.TestContextManager;
+import io.github.iruzhnikov.test.context.jupiter.listeners.ListenerEvent;
 import io.github.iruzhnikov.test.context.jupiter.listeners.ListenerLifecycle;
+import io.github.iruzhnikov.test.context.jupiter.listeners.ListenerMetadata;
 import io.github.iruzhnikov.test.context.jupiter.listeners.ListenersManager;
+import io.github.iruzhnikov.test.context.jupiter.managers.ManagerFabric;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Order;
 import org.junit.platform.commons.util.ReflectionUtils;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import static java.util.Comparator.comparingInt;
 import static java.util.stream.Collectors.toList;
-import static org.junit.platform.commons.util.AnnotationUtils.findAnnotation;
+import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toUnmodifiableList;
 
+/**
+ * Listeners are published as immutable snapshot on each registration,
+ * so listeners are fired without locks from parallel tests
+ */
 @Slf4j
 public class ListenersManagerImpl implements ListenersManager {
+    /**
+     * Listeners methods which are fired concurrently in groups of the same {@link Order},
+     * comma separated method names or true for all methods
+     */
+    public static final String CONCURRENT_PROPERTY = ManagerFabric.BASE_PROPERTY + ".listeners.concurrent";
     private final TestContextManager manager;
+    private final Set<String> concurrentMethods;
     @Getter
-    protected Set<Class<?>> registeredListenerTypes = new HashSet<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(
+            new BasicThreadFactory.Builder().namingPattern("test-context-listeners-%d").daemon(true).build());
     @Getter
-    protected List<Object> contextListeners = new ArrayList<>();
-    protected Set<Class<?>> contextListenersTypes = new HashSet<>();
-    protected Set<String> contextListenersExclusions = new HashSet<>();
-    private final Map<Pair<String, Class<Object>>, List<Object>> listenersByOrder = new HashMap<>();
+    protected final Set<Class<?>> registeredListenerTypes = ConcurrentHashMap.newKeySet();
+    protected final Set<String> contextListenersExclusions = ConcurrentHashMap.newKeySet();
+    /**
+     * Events which were fired, their listeners are resolved on each publish
+     */
+    private final Set<ListenerEvent<?>> events = ConcurrentHashMap.newKeySet();
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
+    private final Runnable unsubscribe;
 
     public ListenersManagerImpl(TestContextManager manager) {
         this.manager = manager;
+        concurrentMethods = manager.getConfig().get(CONCURRENT_PROPERTY)
+                .map(value -> Arrays.stream(value.split(",")).map(String::trim).collect(toSet()))
+                .orElse(Set.of());
         loadListeners(ListenerLifecycle.class);
-        loadAnnotationListeners();
-    }
-
-    protected void loadAnnotationListeners() {
-        manager.getTestAnnotations(io.github.iruzhnikov.test.context.jupiter.listeners.annotations.TestContextListener.class)
-                .forEach(definition -> {
-                    if (!Void.class.isAssignableFrom(definition.exclude())) {
-                        contextListenersExclusions.add(definition.exclude().getCanonicalName());
-                    }
-                    if (StringUtils.isNotBlank(definition.excludeReference())) {
-                        contextListenersExclusions.add(definition.excludeReference());
-                    }
-                    if (!Void.class.isAssignableFrom(definition.include())) {
-                        addContextListener(ReflectionUtils.newInstance(definition.include()));
-                    }
-                });
-        removeContextListeners(getExclusions(contextListeners));
-        reorderContextListeners();
+        unsubscribe = manager.subscribeTestAnnotations(
+                io.github.iruzhnikov.test.context.jupiter.listeners.annotations.TestContextListener.class,
+                this::loadAnnotationListeners);
     }
 
+    /**
+     * Definitions of listeners of tests registered later aren't applied after close,
+     * threads of concurrent listeners are released
+     */
     @Override
-    public void registerListener(Object listener) {
+    public void close() {
+        unsubscribe.run();
+        executor.shutdown();
+    }
+
+    /**
+     * Apply definitions of listeners of tests, it is called again for tests registered later
+     */
+    protected synchronized void loadAnnotationListeners(
+            List<io.github.iruzhnikov.test.context.jupiter.listeners.annotations.TestContextListener> definitions) {
+        var listeners = new ArrayList<>(snapshot.listeners);
+        definitions.forEach(definition -> {
+            if (!Void.class.isAssignableFrom(definition.exclude())) {
+                contextListenersExclusions.add(definition.exclude().getCanonicalName());
+            }
+            if (StringUtils.isNotBlank(definition.excludeReference())) {
+                contextListenersExclusions.add(definition.excludeReference());
+            }
+            if (!Void.class.isAssignableFrom(definition.include())) {
+                listeners.add(ReflectionUtils.newInstance(definition.include()));
+            }
+        });
+        publish(listeners);
+    }
+
+    @Override
+    public synchronized void registerListener(Object listener) {
         if (listener != null) {
-            addContextListener(listener);
+            var listeners = new ArrayList<>(snapshot.listeners);
+            listeners.add(listener);
+            publish(listeners);
         }
     }
 
     @Override
     @NotNull
-    public <T> List<T> loadListeners(Class<T> listenersType) {
+    public synchronized <T> List<T> loadListeners(Class<T> listenersType) {
         if (!listenersType.isInterface()) {
             throw new IllegalArgumentException("listenersType must be interface!");
         }
@@ -72,33 +115,107 @@ public class ListenersManagerImpl implements ListenersManager {
         log.info("Loaded " + listenersType.getName() + " instances: "
                 + listeners.stream().map(Object::getClass).collect(toList()));
 
-        listeners.removeAll(getExclusions(listeners));
+        listeners.removeIf(this::isExcluded);
         if (listeners.size() > 0) {
-            addContextListeners(listeners.stream()
-                    .filter(l -> !contextListenersExclusions.contains(l.getClass().getName())).collect(toList()));
-            reorderContextListeners();
-            for (var key : SetUtils.unmodifiableSet(listenersByOrder.keySet())) {
-                if (listenersType.isAssignableFrom(key.getValue())) {
-                    listenersByOrder.remove(key);
-                }
-            }
+            var contextListeners = new ArrayList<>(snapshot.listeners);
+            contextListeners.addAll(listeners);
+            publish(contextListeners);
         }
         return listeners;
     }
 
+    @Override
+    public List<Object> getContextListeners() {
+        return snapshot.listeners;
+    }
+
+    /**
+     * Version of published listeners, it is changed by each registration
+     */
+    public int getVersion() {
+        return snapshot.version;
+    }
+
     @Override
     public <T> List<T> getListeners(Class<T> listenerClass, String methodName) {
-        @SuppressWarnings("unchecked") var lClass = (Class<Object>) listenerClass;
-        return (ArrayList<T>) listenersByOrder.computeIfAbsent(Pair.of(methodName, lClass), s ->
-                makeSortedListenersList(s.getKey(), s.getValue(), contextListeners));
+        return getListeners(snapshot, listenerClass, methodName);
+    }
+
+    @Override
+    public <T> List<T> getImplementingListeners(Class<T> listenerClass, String methodName) {
+        return getImplementingListeners(snapshot, listenerClass, methodName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getImplementingListeners(Snapshot current, Class<T> listenerClass, String methodName) {
+        return (List<T>) current.listenersByEvent.computeIfAbsent(listenerClass, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(methodName, m -> getListeners(current, listenerClass, m).stream()
+                        .filter(l -> isImplemented(l, m)).collect(toUnmodifiableList()));
+    }
+
+    @Override
+    public <T> void fireListeners(Class<T> listenerClass, String methodName, Consumer<T> consumer) {
+        if (isConcurrent(methodName)) {
+            getOrderGroups(listenerClass, methodName).fire(consumer, executor);
+            return;
+        }
+        var listeners = getImplementingListeners(listenerClass, methodName);
+        //indexed loop over resolved list doesn't allocate iterator on each event
+        for (int i = 0; i < listeners.size(); i++) {
+            consumer.accept(listeners.get(i));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void fireListeners(ListenerEvent<T> event, Object first, Object second, Object third) {
+        if (isConcurrent(event.getMethodName())) {
+            ListenersManager.super.fireListeners(event, first, second, third);
+            return;
+        }
+        for (Object listener : getEventListeners(snapshot, event)) {
+            event.invoke((T) listener, first, second, third);
+        }
+    }
+
+    private Object[] getEventListeners(Snapshot current, ListenerEvent<?> event) {
+        var resolved = current.eventListeners;
+        var index = event.getIndex();
+        if (index < resolved.length && resolved[index] != null) {
+            return resolved[index];
+        }
+        return resolveEventListeners(current, event);
+    }
+
+    private Object[] resolveEventListeners(Snapshot current, ListenerEvent<?> event) {
+        events.add(event);
+        var listeners = getImplementingListeners(current, event.getListenerType(), event.getMethodName()).toArray();
+        synchronized (current) {
+            var resolved = Arrays.copyOf(current.eventListeners,
+                    Math.max(current.eventListeners.length, event.getIndex() + 1));
+            resolved[event.getIndex()] = listeners;
+            current.eventListeners = resolved;
+        }
+        return listeners;
+    }
+
+    protected boolean isConcurrent(String methodName) {
+        return !concurrentMethods.isEmpty() && (concurrentMethods.contains("true") || concurrentMethods.contains(methodName));
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T> OrderGroups<T> getOrderGroups(Class<T> listenerClass, String methodName) {
+        var current = snapshot;
+        return (OrderGroups<T>) current.groupsByEvent.computeIfAbsent(listenerClass, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(methodName, m -> new OrderGroups<>(getImplementingListeners(listenerClass, m),
+                        l -> getOrder(l, m, listenerClass)));
     }
 
     @Override
     public void fireListenersLoaded() {
-        removeContextListeners(getExclusions(contextListeners));
         registeredListenerTypes.forEach(this::makeListenersCache);
         //don't make cache for not resolved types
-        contextListeners.stream()
+        snapshot.listeners.stream()
                 .filter(l -> registeredListenerTypes.stream().noneMatch(c -> c.isAssignableFrom(l.getClass())))
                 .forEach(l -> registeredListenerTypes.add(l.getClass()));
         getListeners(ListenerLifecycle.class, "listenerLoaded")
@@ -108,40 +225,63 @@ public class ListenersManagerImpl implements ListenersManager {
     protected void makeListenersCache(Class<?> listenerClass) {
         for (Method method : listenerClass.getMethods()) {
             if (!Modifier.isStatic(method.getModifiers())) {
-                getListeners(listenerClass, method.getName());
+                getImplementingListeners(listenerClass, method.getName());
             }
         }
     }
 
-    private void reorderContextListeners() {
-        contextListeners.sort(comparingInt(value ->
-                findAnnotation(value.getClass(), Order.class).map(Order::value).orElse(Order.DEFAULT)));
-    }
-
-    private <T> List<T> getExclusions(List<T> listeners) {
-        return listeners.stream()
-                .filter(l -> contextListenersExclusions.contains(l.getClass().getCanonicalName())).collect(toList());
-    }
-
-    private void addContextListeners(List<Object> listeners) {
-        listeners.forEach(this::addContextListener);
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getListeners(Snapshot current, Class<T> listenerClass, String methodName) {
+        return (List<T>) current.listenersByOrder.computeIfAbsent(listenerClass, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(methodName, m -> List.copyOf(makeSortedListenersList(m, listenerClass, current.listeners)));
     }
 
-    private void addContextListener(Object listener) {
-        if (listener instanceof ServiceLoader.Provider) {
-            listener = ((ServiceLoader.Provider<?>) listener).get();
-        }
-        if (contextListenersTypes.add(listener.getClass())) {
-            contextListeners.add(listener);
+    /**
+     * Publish listeners without duplicated types and exclusions, sorted by {@link Order}
+     */
+    private void publish(List<Object> listeners) {
+        var types = new HashSet<Class<?>>();
+        var published = new ArrayList<>();
+        for (var listener : listeners) {
+            if (listener instanceof ServiceLoader.Provider) {
+                listener = ((ServiceLoader.Provider<?>) listener).get();
+            }
+            if (!isExcluded(listener) && types.add(listener.getClass())) {
+                published.add(listener);
+            }
         }
+        published.sort(comparingInt(value -> ListenerMetadata.of(value.getClass()).getOrder()));
+        var next = new Snapshot(snapshot.version + 1, Collections.unmodifiableList(published));
+        //listeners of fired events are resolved before publish, firing doesn't look them up
+        events.forEach(event -> resolveEventListeners(next, event));
+        snapshot = next;
     }
 
-    private void removeContextListeners(List<Object> listeners) {
-        listeners.forEach(this::removeContextListener);
+    private boolean isExcluded(Object listener) {
+        return contextListenersExclusions.contains(listener.getClass().getCanonicalName()) ||
+                contextListenersExclusions.contains(listener.getClass().getName());
     }
 
-    private void removeContextListener(Object listeners) {
-        contextListenersTypes.remove(listeners.getClass());
-        contextListeners.remove(listeners);
+    private static class Snapshot {
+        private final int version;
+        private final List<Object> listeners;
+        /**
+         * Sorted listeners resolved once by listener type and method name
+         */
+        private final Map<Class<?>, Map<String, List<Object>>> listenersByOrder = new ConcurrentHashMap<>();
+        /**
+         * Sorted listeners which implement method, see {@link ListenersManagerImpl#getImplementingListeners(Class, String)}
+         */
+        private final Map<Class<?>, Map<String, List<Object>>> listenersByEvent = new ConcurrentHashMap<>();
+        private final Map<Class<?>, Map<String, OrderGroups<?>>> groupsByEvent = new ConcurrentHashMap<>();
+        /**
+         * Listeners which implement method of event by {@link ListenerEvent#getIndex()}
+         */
+        private volatile Object[][] eventListeners = new Object[0][];
+
+        private Snapshot(int version, List<Object> listeners) {
+            this.version = version;
+            this.listeners = listeners;
+        }
     }
 }
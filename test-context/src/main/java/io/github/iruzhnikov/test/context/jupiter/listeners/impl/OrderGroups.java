@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.listeners.impl;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Listeners grouped by {@link org.junit.jupiter.api.Order}, listeners of one group are fired concurrently
+ * and next group is fired after finish of previous group
+ */
+public class OrderGroups<T> {
+    private final List<List<T>> groups = new ArrayList<>();
+
+    /**
+     * @param listeners listeners sorted by order
+     * @param order     order of listener for fired method
+     */
+    public OrderGroups(List<T> listeners, ToIntFunction<T> order) {
+        Integer previous = null;
+        for (T listener : listeners) {
+            var current = order.applyAsInt(listener);
+            if (previous == null || previous != current) {
+                groups.add(new ArrayList<>());
+            }
+            groups.get(groups.size() - 1).add(listener);
+            previous = current;
+        }
+    }
+
+    public List<List<T>> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Errors of listeners of group are rethrown as one error with others as suppressed after finish of group
+     */
+    public void fire(Consumer<T> consumer, ExecutorService executor) {
+        for (var group : groups) {
+            if (group.size() == 1) {
+                consumer.accept(group.get(0));
+            } else {
+                fireGroup(group, consumer, executor);
+            }
+        }
+    }
+
+    private void fireGroup(List<T> group, Consumer<T> consumer, ExecutorService executor) {
+        var futures = new ArrayList<Future<?>>();
+        for (int i = 1; i < group.size(); i++) {
+            var listener = group.get(i);
+            futures.add(executor.submit(() -> consumer.accept(listener)));
+        }
+        Throwable error = null;
+        try {
+            consumer.accept(group.get(0));
+        } catch (Throwable ex) {
+            error = ex;
+        }
+        for (var future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                error = addError(error, ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Listeners firing interrupted", ex);
+            }
+        }
+        if (error != null) {
+            ExceptionUtils.rethrow(error);
+        }
+    }
+
+    private static Throwable addError(Throwable error, Throwable next) {
+        if (error == null) {
+            return next;
+        }
+        error.addSuppressed(next);
+        return error;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.managers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Generations of context, test context leases last generation until the test context is finished
+ * <p>
+ * New generation is started alongside leased generations, previous generations are stopped in background
+ * after their last leases
+ */
+@Slf4j
+public class Generations<T> implements Replicas<T> {
+    private final Supplier<T> factory;
+    private final Consumer<T> stop;
+    private final BasicThreadFactory threadFactory;
+    /**
+     * Alive generations, last is leased by new test contexts
+     */
+    private final List<Generation<T>> generations = new ArrayList<>();
+    private final Map<String, Generation<T>> leases = new HashMap<>();
+    private final List<CompletableFuture<Void>> stopping = new CopyOnWriteArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int sequence;
+
+    public Generations(String name, Supplier<T> factory, Consumer<T> stop) {
+        this.factory = factory;
+        this.stop = stop;
+        this.threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern("test-context-generation-" + name + "-%d").daemon(true).build();
+    }
+
+    @Override
+    public T lease(ExtensionContext context) {
+        //nested test contexts run on generation of parent context
+        var leased = Lease.<T>find(context, getNamespace());
+        if (leased != null) {
+            return leased.replica;
+        }
+        var key = context.getUniqueId();
+        var replica = lease(key);
+        context.getStore(getNamespace()).put(key, new Lease<>(key, replica, this::release));
+        return replica;
+    }
+
+    public T lease(String key) {
+        lock.lock();
+        try {
+            var generation = leases.get(key);
+            if (generation == null) {
+                generation = getLast();
+                generation.leases++;
+                leases.put(key, generation);
+            }
+            return generation.replica;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start new generation in current thread, it is leased by test context and its nested contexts
+     * instead of previous generation
+     */
+    public T renew(ExtensionContext context, Consumer<T> start) {
+        var key = context.getUniqueId();
+        var replica = renew(key, start);
+        var store = context.getStore(getNamespace());
+        @SuppressWarnings("unchecked")
+        var lease = (Lease<T>) store.get(key, Lease.class);
+        if (lease != null) {
+            lease.replica = replica;
+        } else {
+            store.put(key, new Lease<>(key, replica, this::release));
+        }
+        return replica;
+    }
+
+    /**
+     * Start new generation in current thread, it is leased by key instead of previous generation
+     *
+     * @param key null when new generation is only for new test contexts
+     */
+    public T renew(@Nullable String key, Consumer<T> start) {
+        var next = new Generation<>(factory.get());
+        start.accept(next.replica);
+        lock.lock();
+        try {
+            next.number = ++sequence;
+            getLast().isRetired = true;
+            generations.add(next);
+            if (key != null) {
+                var previous = leases.put(key, next);
+                if (previous != null) {
+                    previous.leases--;
+                }
+                next.leases++;
+            }
+            stopUnused();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Context generation {} started", next.number);
+        return next.replica;
+    }
+
+    public void release(String key) {
+        lock.lock();
+        try {
+            var generation = leases.remove(key);
+            if (generation != null) {
+                generation.leases--;
+                stopUnused();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T getCurrent(ExtensionContext context) {
+        var lease = Lease.<T>find(context, getNamespace());
+        if (lease == null) {
+            throw new IllegalStateException("Generation of context isn't leased by " + context.getUniqueId());
+        }
+        return lease.replica;
+    }
+
+    private ExtensionContext.Namespace getNamespace() {
+        return ExtensionContext.Namespace.create(Generations.class, this);
+    }
+
+    @Override
+    public List<T> getReplicas() {
+        lock.lock();
+        try {
+            getLast();
+            return generations.stream().map(g -> g.replica).collect(Collectors.toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait finishing of generations stopping in background
+     */
+    public void awaitStopped() {
+        for (var future : stopping) {
+            future.join();
+            stopping.remove(future);
+        }
+    }
+
+    private Generation<T> getLast() {
+        if (generations.isEmpty()) {
+            generations.add(new Generation<>(factory.get()));
+        }
+        return generations.get(generations.size() - 1);
+    }
+
+    private void stopUnused() {
+        for (var iterator = generations.iterator(); iterator.hasNext(); ) {
+            var generation = iterator.next();
+            if (generation.isRetired && generation.leases == 0) {
+                iterator.remove();
+                var future = new CompletableFuture<Void>();
+                stopping.add(future);
+                threadFactory.newThread(() -> {
+                    try {
+                        stop.accept(generation.replica);
+                        log.info("Context generation {} stopped", generation.number);
+                        future.complete(null);
+                    } catch (Throwable ex) {
+                        log.error("Crash stopping context generation {}", generation.number, ex);
+                        future.complete(null);
+                    }
+                }).start();
+            }
+        }
+    }
+
+    private static class Generation<T> {
+        private final T replica;
+        private int number;
+        private int leases;
+        private boolean isRetired;
+
+        private Generation(T replica) {
+            this.replica = replica;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.managers;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.function.Consumer;
+
+/**
+ * Replica leased by test context, it is stored in the context and released on its finish
+ */
+class Lease<T> implements ExtensionContext.Store.CloseableResource {
+    private final String key;
+    private final Consumer<String> release;
+    volatile T replica;
+
+    Lease(String key, T replica, Consumer<String> release) {
+        this.key = key;
+        this.replica = replica;
+        this.release = release;
+    }
+
+    /**
+     * Lease of test context or of its nearest parent
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static <T> Lease<T> find(ExtensionContext context, ExtensionContext.Namespace namespace) {
+        for (var current = context; current != null; current = current.getParent().orElse(null)) {
+            var lease = current.getStore(namespace).get(current.getUniqueId(), Lease.class);
+            if (lease != null) {
+                return lease;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        release.accept(key);
+    }
+}
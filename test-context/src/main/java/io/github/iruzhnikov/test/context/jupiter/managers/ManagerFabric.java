@@ -32,6 +32,7 @@ import org.junit.platform.launcher.TestIdentifier;
 
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -63,10 +64,13 @@ public class ManagerFabric {
     private AnnotationsScanner annotationsScanner;
     @Getter
     private final ConfigurationParameters config;
+    @Getter
+    private final StartScheduler startScheduler;
 
     public ManagerFabric(ConfigurationParameters config) {
         this.managers = new ConcurrentHashMap<>();
         this.config = config;
+        this.startScheduler = new StartScheduler(config);
     }
 
     public TestContextManager getManager(String id) {
@@ -74,6 +78,10 @@ public class ManagerFabric {
                 args -> new TestContextManager((String) args[0], (AnnotationsScanner) args[1]), id, getAnnotationsScanner()));
     }
 
+    public Collection<TestContextManager> getManagers() {
+        return managers.values();
+    }
+
     public String makeManagerClassProperty(String id) {
         return MANAGER_CLASS_PROPERTY.replace("{id}", id);
     }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.managers;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Pool of context replicas, each test class leases one replica until it is finished
+ * <p>
+ * Thread keeps the same replica across test classes when it is free
+ */
+@Slf4j
+public class ReplicaPool<T> implements Replicas<T> {
+    private final Supplier<T> factory;
+    @Getter
+    private final int size;
+    private final List<T> replicas = new ArrayList<>();
+    private final Map<String, Integer> leases = new HashMap<>();
+    private final ThreadLocal<Integer> affinity = new ThreadLocal<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    public ReplicaPool(int size, Supplier<T> factory) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size of replicas pool must be positive, but was " + size);
+        }
+        this.size = size;
+        this.factory = factory;
+    }
+
+    /**
+     * Lease replica by test class of context until the class is finished
+     */
+    @Override
+    public T lease(ExtensionContext context) {
+        var classContext = context;
+        while (classContext.getParent().flatMap(ExtensionContext::getParent).isPresent()) {
+            classContext = classContext.getParent().get();
+        }
+        var key = classContext.getUniqueId();
+        var leased = Lease.<T>find(classContext, getNamespace());
+        if (leased != null) {
+            return leased.replica;
+        }
+        var replica = lease(key);
+        classContext.getStore(getNamespace()).put(key, new Lease<>(key, replica, this::release));
+        return replica;
+    }
+
+    /**
+     * Lease replica by key, waits free replica when all replicas are leased
+     */
+    public T lease(String key) {
+        lock.lock();
+        try {
+            var index = leases.get(key);
+            while (index == null) {
+                index = getFree();
+                if (index == null) {
+                    released.await();
+                } else {
+                    leases.put(key, index);
+                    log.debug("Replica {} is leased by '{}'", index, key);
+                }
+            }
+            affinity.set(index);
+            return replicas.get(index);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Waiting replica for '" + key + "' interrupted", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(String key) {
+        lock.lock();
+        try {
+            if (leases.remove(key) != null) {
+                released.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T getCurrent(ExtensionContext context) {
+        var lease = Lease.<T>find(context, getNamespace());
+        if (lease == null) {
+            throw new IllegalStateException("Replica of context isn't leased by " + context.getUniqueId());
+        }
+        return lease.replica;
+    }
+
+    private ExtensionContext.Namespace getNamespace() {
+        return ExtensionContext.Namespace.create(ReplicaPool.class, this);
+    }
+
+    @Override
+    public List<T> getReplicas() {
+        lock.lock();
+        try {
+            while (replicas.size() < size) {
+                replicas.add(factory.get());
+            }
+            return List.copyOf(replicas);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Nullable
+    private Integer getFree() {
+        var preferred = affinity.get();
+        if (preferred != null && !leases.containsValue(preferred)) {
+            return preferred;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!leases.containsValue(i)) {
+                if (i == replicas.size()) {
+                    replicas.add(factory.get());
+                }
+                return i;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.managers;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+
+/**
+ * Replicas of context leased by test contexts
+ */
+public interface Replicas<T> {
+
+    /**
+     * Lease replica by test context until the context is finished
+     */
+    T lease(ExtensionContext context);
+
+    /**
+     * Replica leased by test context or by its parents
+     *
+     * @throws IllegalStateException when replica isn't leased
+     */
+    T getCurrent(ExtensionContext context);
+
+    /**
+     * Alive replicas
+     */
+    List<T> getReplicas();
+}
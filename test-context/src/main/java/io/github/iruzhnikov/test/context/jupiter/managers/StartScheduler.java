@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.managers;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.platform.engine.ConfigurationParameters;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scheduler of starting contexts of managers
+ * <p>
+ * You can limit count of concurrently starting contexts by config `test.context.managers.start.limit=2`,
+ * other starts are queued. Starts demanded by running tests are dequeued first,
+ * then starts by priority `test.context.manager.{id}.priority=0` (lower is earlier)
+ */
+@Slf4j
+public class StartScheduler {
+    public static final String START_LIMIT_PROPERTY = ManagerFabric.BASE_PROPERTY + ".managers.start.limit";
+    public static final String PRIORITY_PROPERTY = ManagerFabric.BASE_PROPERTY + ".manager.{id}.priority";
+
+    private static final Comparator<Ticket> TICKETS_ORDER = Comparator.comparing((Ticket t) -> !t.isDemanded)
+            .thenComparingInt(t -> t.priority)
+            .thenComparingLong(t -> t.sequence);
+
+    private final ConfigurationParameters config;
+    private final int limit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final List<Ticket> queue = new ArrayList<>();
+    private final Map<String, Statistic> statistics = new ConcurrentHashMap<>();
+    private long sequence;
+    private int running;
+
+    public StartScheduler(ConfigurationParameters config) {
+        this.config = config;
+        this.limit = config.get(START_LIMIT_PROPERTY, Integer::parseInt).orElse(0);
+    }
+
+    /**
+     * Start context of manager in current thread when it is allowed by limit
+     *
+     * @param isDemanded start is needed by running test
+     */
+    public void start(String id, boolean isDemanded, Runnable start) {
+        var queued = System.nanoTime();
+        if (limit > 0) {
+            enqueue(new Ticket(id, getPriority(id), isDemanded));
+        }
+        var started = System.nanoTime();
+        try {
+            start.run();
+        } finally {
+            if (limit > 0) {
+                release();
+            }
+            statistics.put(id, new Statistic(Duration.ofNanos(started - queued),
+                    Duration.ofNanos(System.nanoTime() - started)));
+        }
+        log.info("Context of manager '{}' started in {}, waited in queue {}", id,
+                statistics.get(id).getStartLatency(), statistics.get(id).getQueueWait());
+    }
+
+    /**
+     * Dequeue start of manager before not demanded starts
+     */
+    public void demand(String id) {
+        lock.lock();
+        try {
+            queue.stream().filter(t -> t.id.equals(id)).forEach(t -> t.isDemanded = true);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Statistic of last start of manager context
+     */
+    public Optional<Statistic> getStatistic(String id) {
+        return Optional.ofNullable(statistics.get(id));
+    }
+
+    public int getPriority(String id) {
+        return config.get(PRIORITY_PROPERTY.replace("{id}", id), Integer::parseInt).orElse(0);
+    }
+
+    private void enqueue(Ticket ticket) {
+        lock.lock();
+        try {
+            ticket.sequence = sequence++;
+            queue.add(ticket);
+            while (running >= limit || queue.stream().min(TICKETS_ORDER).orElseThrow() != ticket) {
+                released.await();
+            }
+            queue.remove(ticket);
+            running++;
+            released.signalAll();
+        } catch (InterruptedException ex) {
+            queue.remove(ticket);
+            released.signalAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Waiting start of context '" + ticket.id + "' interrupted", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            running--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Getter
+    public static class Statistic {
+        private final Duration queueWait;
+        private final Duration startLatency;
+
+        public Statistic(Duration queueWait, Duration startLatency) {
+            this.queueWait = queueWait;
+            this.startLatency = startLatency;
+        }
+    }
+
+    private static class Ticket {
+        private final String id;
+        private final int priority;
+        private boolean isDemanded;
+        private long sequence;
+
+        private Ticket(String id, int priority, boolean isDemanded) {
+            this.id = id;
+            this.priority = priority;
+            this.isDemanded = isDemanded;
+        }
+    }
+}
@@ -16,24 +16,65 @@
 
 package io.github.iruzhnikov.test.context.jupiter.scanner;
 
+import io.github.iruzhnikov.test.context.jupiter.managers.annotations.ManagerId;
 import org.jetbrains.annotations.NotNull;
 import org.junit.platform.engine.TestSource;
 import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 public interface AnnotationsScanner {
     void register(TestIdentifier testIdentifier);
 
+    /**
+     * Register all identifiers of test plan, registered identifiers are returned by id of their manager
+     */
+    default Map<String, List<TestIdentifier>> register(TestPlan testPlan) {
+        var registered = new LinkedHashMap<String, List<TestIdentifier>>();
+        testPlan.countTestIdentifiers(testIdentifier -> {
+            register(testIdentifier);
+            getAnnotatedElements(testIdentifier).flatMap(ae -> findAnnotation(ae, ManagerId.class).stream())
+                    .findFirst().ifPresent(id ->
+                            registered.computeIfAbsent(id.value(), i -> new ArrayList<>()).add(testIdentifier));
+            return true;
+        });
+        return registered;
+    }
+
     <T extends Annotation> List<T> getAnnotations(TestIdentifier testIdentifier, Class<T> annotation, Filter... customFilters);
 
     <T extends Annotation> List<T> getAnnotations(Class<T> annotation, Filter... customFilters);
 
+    /**
+     * Annotations of registered tests of manager with {@link ManagerId#value()}
+     */
+    default <T extends Annotation> List<T> getManagerAnnotations(String managerId, Class<T> annotation) {
+        return getAnnotations(annotation,
+                s -> getAnnotations(s, ManagerId.class).anyMatch(a -> managerId.equals(a.value())));
+    }
+
+    /**
+     * Current annotations of registered tests of manager are passed to subscriber at once,
+     * then annotations of tests registered later are passed on each registration
+     *
+     * @return unsubscribe action
+     */
+    default <T extends Annotation> Runnable subscribe(String managerId, Class<T> annotation, Consumer<List<T>> added) {
+        added.accept(getManagerAnnotations(managerId, annotation));
+        return () -> {
+        };
+    }
+
     <T extends Annotation> Optional<T> getSingleAnnotation(TestIdentifier testIdentifier, Class<T> annotation,
                                                            Filter... customFilters);
 
@@ -17,6 +17,8 @@
 package io.github.iruzhnikov.test.context.jupiter.scanner.impl;
 
 import io.github.iruzhnikov.test.context.jupiter.TestContextExtension;
+import io.github.iruzhnikov.test.context.jupiter.managers.ManagerFabric;
+import io.github.iruzhnikov.test.context.jupiter.managers.annotations.ManagerId;
 import io.github.iruzhnikov.test.context.jupiter.scanner.AnnotationsScanner;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,29 +26,126 @@ import org.junit.platform.commons.util.AnnotationUtils;
 import org.junit.platform.engine.TestSource;
 import org.junit.platform.engine.support.descriptor.*;
 import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
 
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Repeatable;
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toUnmodifiableList;
 
 public class AnnotationsScannerImpl implements AnnotationsScanner {
     private final Set<TestIdentifier> testIdentifiers;
+    /**
+     * Registered identifiers and aggregated annotations of them by {@link ManagerId}
+     */
+    private final Map<String, ManagerIndex> managers = new ConcurrentHashMap<>();
+    /**
+     * Resolved annotations of classes by annotation type
+     */
+    private final ClassValue<Map<Class<?>, List<?>>> classAnnotations = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, List<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    /**
+     * Resolved annotations of methods and other elements by annotation type
+     */
+    private final Map<AnnotatedElement, Map<Class<?>, List<?>>> elementAnnotations =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * Elements with test context by test source
+     */
+    private final Map<TestSource, List<AnnotatedElement>> sourceElements =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
 
     public AnnotationsScannerImpl() {
-        testIdentifiers = new CopyOnWriteArraySet<>();
+        testIdentifiers = ConcurrentHashMap.newKeySet();
     }
 
     @Override
     public void register(TestIdentifier testIdentifier) {
-        testIdentifier.getSource().map(this::getAnnotatedElements)
-                .filter(s -> s.anyMatch(this::isTestContext)).ifPresent(ignored -> testIdentifiers.add(testIdentifier));
+        var isTestContext = testIdentifier.getSource().map(this::getAnnotatedElements)
+                .filter(s -> s.anyMatch(this::isTestContext)).isPresent();
+        if (isTestContext && testIdentifiers.add(testIdentifier)) {
+            var testClass = testIdentifier.getSource().map(this::getTestClassName).orElse("");
+            getAnnotations(testIdentifier.getSource(), ManagerId.class).map(ManagerId::value).distinct()
+                    .forEach(id -> getManagerIndex(id).addAll(List.of(new Registration(testClass, testIdentifier))));
+        }
+    }
+
+    /**
+     * Identifiers are resolved on calling thread, then they are published to each manager at once.
+     * Identifier belongs to manager of its first annotated element like in {@link ManagerFabric#getManager(Stream)},
+     * so id of method wins over id of class
+     */
+    @Override
+    public Map<String, List<TestIdentifier>> register(TestPlan testPlan) {
+        var identifiers = new ArrayList<TestIdentifier>();
+        testPlan.countTestIdentifiers(identifiers::add);
+        var registered = new LinkedHashMap<String, List<TestIdentifier>>();
+        var byManager = new HashMap<String, List<Registration>>();
+        for (var identifier : identifiers) {
+            var found = getAnnotations(identifier.getSource(), ManagerId.class).map(ManagerId::value).findFirst();
+            if (found.isEmpty()) {
+                continue;
+            }
+            var managerId = found.get();
+            if (testIdentifiers.add(identifier)) {
+                var testClass = identifier.getSource().map(this::getTestClassName).orElse("");
+                byManager.computeIfAbsent(managerId, m -> new ArrayList<>())
+                        .add(new Registration(testClass, identifier));
+            }
+            registered.computeIfAbsent(managerId, m -> new ArrayList<>()).add(identifier);
+        }
+        byManager.forEach((id, registrations) -> getManagerIndex(id).addAll(registrations));
+        return registered;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Annotation> List<T> getManagerAnnotations(String managerId, Class<T> annotation) {
+        var index = getManagerIndex(managerId);
+        synchronized (index) {
+            return (List<T>) List.copyOf(index.getView(annotation).annotations);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Annotation> Runnable subscribe(String managerId, Class<T> annotation, Consumer<List<T>> added) {
+        var index = getManagerIndex(managerId);
+        var subscriber = new Subscriber(a -> added.accept((List<T>) a));
+        View view;
+        List<Annotation> current;
+        synchronized (index) {
+            view = index.getView(annotation);
+            view.subscribers.add(subscriber);
+            current = List.copyOf(view.annotations);
+        }
+        //subscriber isn't called under lock, it can register identifiers itself
+        subscriber.replay(current);
+        return () -> {
+            subscriber.isActive = false;
+            view.subscribers.remove(subscriber);
+        };
+    }
+
+    private ManagerIndex getManagerIndex(String managerId) {
+        return managers.computeIfAbsent(managerId, id -> new ManagerIndex());
     }
 
     @Override
@@ -80,17 +179,44 @@ public class AnnotationsScannerImpl implements AnnotationsScanner {
 
     @Override
     public <T extends Annotation> Optional<T> findAnnotation(AnnotatedElement ae, Class<T> annotation) {
-        if (annotation.isAnnotationPresent(Repeatable.class)) {
-            return findAnnotations(ae, annotation).stream().reduce((a, b) -> {
-                throw new IllegalStateException(ae + " Multiple elements: " + a + ", " + b);
-            });
-        } else {
-            return AnnotationUtils.findAnnotation(ae, annotation);
-        }
+        //not repeatable annotation is found once
+        return findAnnotations(ae, annotation).stream().reduce((a, b) -> {
+            throw new IllegalStateException(ae + " Multiple elements: " + a + ", " + b);
+        });
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T extends Annotation> List<T> findAnnotations(AnnotatedElement ae, Class<T> annotation) {
+        var cache = ae instanceof Class
+                ? classAnnotations.get((Class<?>) ae)
+                : elementAnnotations.computeIfAbsent(ae, e -> new ConcurrentHashMap<>());
+        var cached = cache.get(annotation);
+        if (cached != null) {
+            cacheHits.increment();
+            return (List<T>) cached;
+        }
+        cacheMisses.increment();
+        var found = List.copyOf(resolveAnnotations(ae, annotation));
+        cache.putIfAbsent(annotation, found);
+        return found;
+    }
+
+    /**
+     * Count of annotations lookups resolved from cache
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Count of annotations lookups resolved by reflection
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    protected <T extends Annotation> List<T> resolveAnnotations(AnnotatedElement ae, Class<T> annotation) {
         if (annotation.isAnnotationPresent(Repeatable.class)) {
             return AnnotationUtils.findRepeatableAnnotations(ae, annotation);
         } else {
@@ -128,19 +254,27 @@ public class AnnotationsScannerImpl implements AnnotationsScanner {
     @NotNull
     @Override
     public Stream<AnnotatedElement> getAnnotatedElements(Optional<TestSource> source, Filter... customFilters) {
-        return source
-                .filter(s -> Arrays.stream(customFilters).allMatch(f -> f.apply(s)))
-                .map(this::getAnnotatedElements).orElseGet(Stream::empty)
-                .filter(this::isTestContext)
-                .map(i -> {
-                    if (i instanceof Method) {
-                        return Pair.of(((Method) i).getDeclaringClass().getName() + "#" + ((Method) i).getName(), i);
-                    } else if (i instanceof Class) {
-                        return Pair.of(((Class<?>) i).getName() + "#class", i);
-                    } else {
-                        return Pair.of(i.toString() + "#toString", i);
-                    }
-                }).collect(toMap(Pair::getKey, Pair::getValue)).values().stream();
+        if (source.isEmpty()) {
+            return Stream.empty();
+        }
+        for (var filter : customFilters) {
+            if (!filter.apply(source.get())) {
+                return Stream.empty();
+            }
+        }
+        return getTestContextElements(source.get()).stream();
+    }
+
+    /**
+     * Distinct elements of source with test context, they are resolved once by source
+     */
+    protected List<AnnotatedElement> getTestContextElements(TestSource source) {
+        var elements = sourceElements.get(source);
+        if (elements == null) {
+            elements = getAnnotatedElements(source).distinct().filter(this::isTestContext).collect(toUnmodifiableList());
+            sourceElements.put(source, elements);
+        }
+        return elements;
     }
 
     protected boolean isTestContext(AnnotatedElement ae) {
@@ -148,6 +282,16 @@ public class AnnotationsScannerImpl implements AnnotationsScanner {
                 .flatMap(a -> Arrays.stream(a.value())).anyMatch(TestContextExtension.class::isAssignableFrom);
     }
 
+    protected String getTestClassName(TestSource source) {
+        if (source instanceof ClassSource) {
+            return ((ClassSource) source).getClassName();
+        } else if (source instanceof MethodSource) {
+            return ((MethodSource) source).getClassName();
+        } else {
+            return "";
+        }
+    }
+
     protected Stream<AnnotatedElement> getAnnotatedElements(TestSource source) {
         if (source instanceof ClassSource) {
             var s = (ClassSource) source;
@@ -179,29 +323,100 @@ public class AnnotationsScannerImpl implements AnnotationsScanner {
         }
     }
 
-    public static class Pair<K, V> extends AbstractMap.SimpleImmutableEntry<K, V> {
-        public Pair(K key, V value) {
-            super(key, value);
+    /**
+     * Identifiers of manager by name of test class and views of their annotations,
+     * views are updated by each new identifier without rescanning of registered ones
+     */
+    private class ManagerIndex {
+        private final Map<String, Set<TestIdentifier>> identifiers = new ConcurrentSkipListMap<>();
+        private final Map<Class<?>, View> views = new ConcurrentHashMap<>();
+
+        private void addAll(List<Registration> registrations) {
+            var notifications = new ArrayList<Runnable>();
+            synchronized (this) {
+                registrations.forEach(r -> identifiers.computeIfAbsent(r.testClass,
+                        c -> new ConcurrentSkipListSet<>(comparing(TestIdentifier::getUniqueId))).add(r.testIdentifier));
+                views.forEach((annotation, view) -> {
+                    var added = registrations.stream()
+                            .flatMap(r -> internalGetAnnotations(r.testIdentifier, annotation.asSubclass(Annotation.class)))
+                            .collect(toUnmodifiableList());
+                    if (!added.isEmpty()) {
+                        view.annotations.addAll(added);
+                        view.subscribers.forEach(s -> notifications.add(() -> s.deliver(added)));
+                    }
+                });
+            }
+            notifications.forEach(Runnable::run);
         }
 
-        public static <K, V> Pair<K, V> of(K key, V value) {
-            return new Pair<>(key, value);
+        private View getView(Class<? extends Annotation> annotation) {
+            return views.computeIfAbsent(annotation, a -> new View(identifiers.values().stream()
+                    .flatMap(Set::stream)
+                    .flatMap(i -> internalGetAnnotations(i, annotation))
+                    .collect(toList())));
         }
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o instanceof Pair) {
-                return Objects.equals(getKey(), ((Pair<?, ?>) o).getKey());
+    private static class Registration {
+        private final String testClass;
+        private final TestIdentifier testIdentifier;
+
+        private Registration(String testClass, TestIdentifier testIdentifier) {
+            this.testClass = testClass;
+            this.testIdentifier = testIdentifier;
+        }
+    }
+
+    private static class View {
+        private final List<Annotation> annotations;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        private View(List<? extends Annotation> annotations) {
+            this.annotations = new ArrayList<>(annotations);
+        }
+    }
+
+    /**
+     * Annotations are passed to subscriber in order of registration, current annotations of view are passed first
+     */
+    private static class Subscriber {
+        private final Consumer<List<? extends Annotation>> consumer;
+        private final Deque<List<? extends Annotation>> pending = new ArrayDeque<>();
+        private boolean isReplayed;
+        private boolean isDelivering;
+        private volatile boolean isActive = true;
+
+        private Subscriber(Consumer<List<? extends Annotation>> consumer) {
+            this.consumer = consumer;
+        }
+
+        private synchronized void replay(List<? extends Annotation> current) {
+            pending.addFirst(current);
+            isReplayed = true;
+            drain();
+        }
+
+        private synchronized void deliver(List<? extends Annotation> added) {
+            pending.add(added);
+            if (isReplayed) {
+                drain();
             }
-            return false;
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hashCode(getKey());
+        private void drain() {
+            //annotations registered by consumer itself are passed after current ones
+            if (isDelivering) {
+                return;
+            }
+            isDelivering = true;
+            try {
+                List<? extends Annotation> next;
+                while (isActive && (next = pending.poll()) != null) {
+                    consumer.accept(next);
+                }
+            } finally {
+                isDelivering = false;
+            }
         }
     }
 }
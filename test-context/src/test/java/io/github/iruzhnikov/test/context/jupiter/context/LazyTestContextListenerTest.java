@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context;
+
+import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import io.github.iruzhnikov.test.context.jupiter.listeners.annotations.TestContextListener;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@io.github.iruzhnikov.test.context.jupiter.context.annotations.TestContext
+@TestContextListener(include = LazyTestContextListenerTest.Injected.class)
+@TestContextListener(include = LazyTestContextListenerTest.NotInjected.class)
+public class LazyTestContextListenerTest {
+
+    @Test
+    void startedOnInjection(Injected injected) {
+        assertTrue(injected.isStarted());
+        assertFalse(NotInjected.started.get());
+    }
+
+    public static class Injected implements LazyTestContextListener {
+        @Getter
+        private volatile boolean started;
+
+        @Override
+        public void startContext(Injector injector) {
+            started = true;
+        }
+    }
+
+    public static class NotInjected implements LazyTestContextListener {
+        private static final AtomicBoolean started = new AtomicBoolean();
+
+        @Override
+        public void startContext(Injector injector) {
+            started.set(true);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.context.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedContextTest {
+
+    @Test
+    void attachToPublishedContext(@TempDir Path dir) {
+        var owner = new SharedContext(dir, "manager");
+        assertFalse(owner.attach());
+        assertTrue(owner.isOwner());
+        owner.publish(Map.of(SharedContext.getExportedKey(this, "url"), "jdbc:h2:mem:test"));
+
+        var attached = new SharedContext(dir, "manager");
+        assertTrue(attached.attach());
+        assertEquals(Map.of("url", "jdbc:h2:mem:test"), attached.getExported(this));
+
+        attached.detach();
+        assertFalse(attached.isAttached());
+        assertEquals(Set.of(), owner.awaitDetached(Duration.ZERO));
+        assertFalse(Files.exists(dir.resolve("manager.properties")));
+    }
+
+    @Test
+    void ownerStopsWithAttachedByTimeout(@TempDir Path dir) {
+        var owner = new SharedContext(dir, "manager");
+        owner.attach();
+        owner.publish(Map.of());
+        new SharedContext(dir, "manager").attach();
+        assertEquals(Set.of(ProcessHandle.current().pid()), owner.awaitDetached(Duration.ofMillis(100)));
+        var next = new SharedContext(dir, "manager");
+        assertFalse(next.attach());
+        next.abort();
+    }
+
+    @Test
+    void instancesOfProcessWaitPublishing(@TempDir Path dir) throws Exception {
+        var owner = new SharedContext(dir, "manager");
+        assertFalse(owner.attach());
+        var attached = new SharedContext(dir, "manager");
+        var attaching = CompletableFuture.supplyAsync(attached::attach);
+        Thread.sleep(100);
+        assertFalse(attaching.isDone());
+        owner.publish(Map.of());
+        assertTrue(attaching.get(5, TimeUnit.SECONDS));
+        attached.detach();
+        assertEquals(Set.of(), owner.awaitDetached(null));
+    }
+
+    @Test
+    void abortedStartIsNotShared(@TempDir Path dir) {
+        var owner = new SharedContext(dir, "manager");
+        owner.attach();
+        owner.abort();
+        var next = new SharedContext(dir, "manager");
+        assertFalse(next.attach());
+        next.abort();
+    }
+}
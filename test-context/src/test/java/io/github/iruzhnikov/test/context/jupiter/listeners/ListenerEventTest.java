@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import io.github.iruzhnikov.test.context.jupiter.context.TestContextListener;
+import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListenerEventTest {
+
+    @Test
+    void listenerMethodInvoked() {
+        var event = ListenerEvent.of(TestContextListener.class, "startContext", Injector.class);
+        var listener = new Recording();
+        event.invoke(listener, null, "ignored", "ignored");
+        event.invoke(listener, null, null, null);
+        assertEquals(List.of("startContext", "startContext"), listener.calls);
+    }
+
+    @Test
+    void listenerErrorPassed() {
+        var event = ListenerEvent.of(TestContextListener.class, "stopContext", Injector.class);
+        var error = assertThrows(IllegalStateException.class, () -> event.invoke(new Recording(), null, null, null));
+        assertEquals("stopContext", error.getMessage());
+    }
+
+    @Test
+    void wrongMethodsReported() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ListenerEvent.of(TestContextListener.class, "notExisted", Injector.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> ListenerEvent.of(TestContextListener.class, "startContext", Injector.class,
+                        Object.class, Object.class, Object.class));
+    }
+
+    @Test
+    void eventsIndexedUniquely() {
+        var first = ListenerEvent.of(TestContextListener.class, "startContext", Injector.class);
+        var second = ListenerEvent.of(TestContextListener.class, "startContext", Injector.class);
+        assertNotEquals(first.getIndex(), second.getIndex());
+    }
+
+    public static class Recording implements TestContextListener {
+        private final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void startContext(Injector injector) {
+            calls.add("startContext");
+        }
+
+        @Override
+        public void stopContext(Injector injector) {
+            throw new IllegalStateException("stopContext");
+        }
+    }
+}
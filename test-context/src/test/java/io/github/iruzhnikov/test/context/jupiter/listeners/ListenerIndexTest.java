@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import io.github.iruzhnikov.test.context.jupiter.context.TestContextListener;
+import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListenerIndexTest {
+
+    @Test
+    void generatedIndexMatchesReflection() {
+        var methods = Arrays.stream(TestContextListener.class.getMethods()).map(Method::getName).toArray(String[]::new);
+        for (var listenerType : List.of(Indexed.class, InterfaceOrdered.class, Reordered.class)) {
+            var index = ListenerIndex.find(listenerType).orElseThrow();
+            var reflective = ListenerMetadata.reflective(listenerType);
+            for (var method : methods) {
+                var message = listenerType.getSimpleName() + "." + method;
+                assertTrue(index.isIndexed(method), message);
+                assertEquals(reflective.isImplemented(method), index.isImplemented(method), message);
+                assertEquals(reflective.getOrder(method, TestContextListener.class), index.getOrder(method), message);
+            }
+        }
+    }
+
+    @Test
+    void indexRead() {
+        var index = ListenerIndex.find(Indexed.class).orElseThrow();
+        assertFalse(index.isIndexed("listenerLoaded"));
+        assertTrue(index.isImplemented("startContext"));
+        assertFalse(index.isImplemented("stopContext"));
+        assertEquals(7, index.getOrder("startContext"));
+        assertEquals(10, index.getOrder("stopContext"));
+        assertEquals(3, ListenerIndex.find(InterfaceOrdered.class).orElseThrow().getOrder("startContext"));
+        assertEquals(Order.DEFAULT, ListenerIndex.find(Reordered.class).orElseThrow().getOrder("startContext"));
+    }
+
+    @Test
+    void indexedListenerNotReflected() {
+        var metadata = ListenerMetadata.of(InterfaceOrdered.class);
+        assertEquals(Order.DEFAULT, metadata.getOrder());
+        assertEquals(3, metadata.getOrder("startContext", TestContextListener.class));
+        assertFalse(metadata.isImplemented("stopContext"));
+        assertFalse(metadata.isReflected());
+    }
+
+    @Test
+    void notIndexedListener() {
+        assertTrue(ListenerIndex.find(NotListener.class).isEmpty());
+    }
+
+    @Order(10)
+    public static class Indexed implements TestContextListener {
+        @Order(7)
+        @Override
+        public void startContext(Injector injector) {
+        }
+    }
+
+    public interface OrderedListener extends TestContextListener {
+        @Order(3)
+        @Override
+        default void startContext(Injector injector) {
+        }
+    }
+
+    public interface ReorderedListener extends OrderedListener {
+        @Override
+        default void startContext(Injector injector) {
+        }
+    }
+
+    public static class InterfaceOrdered implements OrderedListener {
+    }
+
+    public static class Reordered implements ReorderedListener {
+    }
+
+    public static class NotListener {
+    }
+}
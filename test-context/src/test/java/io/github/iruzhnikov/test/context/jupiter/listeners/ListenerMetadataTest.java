@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import io.github.iruzhnikov.test.context.jupiter.context.TestContextListener;
+import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListenerMetadataTest {
+
+    @Test
+    void ordersResolvedOnce() {
+        var metadata = ListenerMetadata.of(Ordered.class);
+        assertSame(metadata, ListenerMetadata.of(Ordered.class));
+        assertEquals(200, metadata.getOrder());
+        assertEquals(100, metadata.getOrder("startContext", TestContextListener.class));
+        assertEquals(200, metadata.getOrder("stopContext", TestContextListener.class));
+        assertTrue(metadata.isImplemented("startContext"));
+        assertFalse(metadata.isImplemented("stopContext"));
+    }
+
+    @Test
+    void wrongMethodsReported() {
+        var metadata = ListenerMetadata.of(Ambiguous.class);
+        assertThrows(IllegalArgumentException.class, () -> metadata.getOrder("notExisted", TestContextListener.class));
+        assertThrows(IllegalArgumentException.class, () -> metadata.getOrder("startContext", TestContextListener.class));
+    }
+
+    @Test
+    void defaultOfIntermediateInterfaceImplemented() {
+        var metadata = ListenerMetadata.of(Database.class);
+        assertTrue(metadata.isImplemented("startContext"));
+        assertFalse(metadata.isImplemented("stopContext"));
+    }
+
+    public interface DatabaseListener extends TestContextListener {
+        @Override
+        default void startContext(Injector injector) {
+        }
+    }
+
+    public static class Database implements DatabaseListener {
+    }
+
+    @Order(200)
+    public static class Ordered implements TestContextListener {
+        @Order(100)
+        @Override
+        public void startContext(Injector injector) {
+        }
+    }
+
+    public static class Ambiguous implements TestContextListener {
+        @Order(1)
+        @Override
+        public void startContext(Injector injector) {
+        }
+
+        @Order(2)
+        public void startContext(Injector injector, String name) {
+        }
+    }
+}
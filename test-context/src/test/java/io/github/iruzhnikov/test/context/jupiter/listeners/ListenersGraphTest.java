@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import io.github.iruzhnikov.test.context.jupiter.listeners.annotations.DependsOn;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListenersGraphTest {
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
+
+    @AfterAll
+    static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    @Test
+    void sortedByDependencies() {
+        var database = new Database();
+        var broker = new Broker();
+        var server = new Server();
+        var graph = new ListenersGraph<>(List.of(server, broker, database), l -> 0);
+        assertEquals(List.of(broker, database, server), graph.getSortedListeners());
+    }
+
+    @Test
+    void reversedByDependencies() {
+        var database = new Database();
+        var broker = new Broker();
+        var server = new Server();
+        var graph = new ListenersGraph<>(List.of(server, broker, database), l -> 0).reversed();
+        assertEquals(List.of(server, broker, database), graph.getSortedListeners());
+    }
+
+    @Test
+    void cycleReportedBeforeFiring() {
+        var ex = assertThrows(IllegalArgumentException.class,
+                () -> new ListenersGraph<>(List.of(new CycleA(), new CycleB()), l -> 0));
+        assertTrue(ex.getMessage().contains("cycle"), ex.getMessage());
+    }
+
+    @Test
+    void dependencyOrderedAfterDependent() {
+        assertThrows(IllegalArgumentException.class, () -> new ListenersGraph<>(List.of(new Server(), new Database()),
+                l -> l instanceof Server ? 0 : 1));
+    }
+
+    @Test
+    void stopOrdersOppositeToDependencies() {
+        var server = new Server();
+        var broker = new Broker();
+        var database = new Database();
+        //dependent is ordered to stop first, it is wrong order for start
+        assertThrows(IllegalArgumentException.class, () -> new ListenersGraph<>(List.of(server, broker, database),
+                l -> l == server ? 0 : 1));
+        var graph = new ListenersGraph<>(List.of(server, broker, database)).reversed();
+        assertEquals(List.of(server, broker, database), graph.getSortedListeners());
+        //dependencies are ordered to stop first
+        graph = new ListenersGraph<>(List.of(broker, database, server)).reversed();
+        assertEquals(List.of(server, broker, database), graph.getSortedListeners());
+    }
+
+    @Test
+    void notRegisteredDependency() {
+        assertThrows(IllegalArgumentException.class, () -> new ListenersGraph<>(List.of(new Server()), l -> 0));
+    }
+
+    @Test
+    void independentListenersFiredConcurrently() {
+        var latch = new CountDownLatch(2);
+        var fired = new CopyOnWriteArrayList<>();
+        var graph = new ListenersGraph<>(List.of(new Broker(), new Database(), new Server()), l -> 0);
+        graph.fire(l -> {
+            if (!(l instanceof Server)) {
+                latch.countDown();
+                await(latch);
+            }
+            fired.add(l);
+        }, 2, EXECUTOR);
+        assertInstanceOf(Server.class, fired.get(2));
+    }
+
+    @Test
+    void crashCancelsRunningListeners() {
+        var started = new CountDownLatch(1);
+        var cancelled = new CountDownLatch(1);
+        var graph = new ListenersGraph<>(List.of(new Broker(), new Database(), new Server()), l -> 0);
+        assertThrows(IllegalStateException.class, () -> graph.fire(l -> {
+            if (l instanceof Broker) {
+                try {
+                    started.countDown();
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ex) {
+                    cancelled.countDown();
+                }
+            } else if (l instanceof Database) {
+                await(started);
+                throw new IllegalStateException("crash");
+            } else {
+                fail("Dependent listener must not be fired");
+            }
+        }, 2, EXECUTOR));
+        await(cancelled);
+    }
+
+    @Test
+    void stuckListenerSkippedByDeadline() {
+        var stuck = new Broker();
+        var release = new CountDownLatch(1);
+        var fired = new CopyOnWriteArrayList<>();
+        var graph = new ListenersGraph<>(List.of(new Server(), stuck, new Database()), l -> 0).reversed();
+        var notFired = graph.fire(l -> {
+            if (l == stuck) {
+                //ignores interruption
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+            }
+            fired.add(l);
+        }, 1, EXECUTOR, Duration.ofSeconds(1));
+        assertEquals(List.of(stuck), notFired);
+        assertEquals(2, fired.size());
+        release.countDown();
+    }
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    public static class Broker {
+    }
+
+    public static class Database {
+    }
+
+    @DependsOn({Database.class, Broker.class})
+    public static class Server {
+    }
+
+    @DependsOn(CycleB.class)
+    public static class CycleA {
+    }
+
+    @DependsOn(CycleA.class)
+    public static class CycleB {
+    }
+}
@@ -26,7 +26,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,6 +39,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @TestContextListener(include = ListenersTest.Include_3.class)
 @TestContextListener(include = ListenersTest.Exclude.class)
 @TestContextListener(include = ListenersTest.ExcludeByName.class)
+@TestContextListener(include = ListenersTest.StartOnly.class)
 @TestContextListener(exclude = ListenersTest.Exclude.class)
 @TestContextListener(excludeReference = "io.github.iruzhnikov.test.context.jupiter.listeners.ListenersTest.ExcludeByName")
 public class ListenersTest {
@@ -72,6 +76,24 @@ public class ListenersTest {
         assertTrue(include1.getSelfInitCount() > include2.getSelfInitCount());
     }
 
+    @Test
+    void notImplementedMethodsSkipped(ListenersManager manager) {
+        var type = io.github.iruzhnikov.test.context.jupiter.context.TestContextListener.class;
+        assertTrue(manager.getListeners(type, "stopContext").stream().anyMatch(StartOnly.class::isInstance));
+        assertTrue(manager.getImplementingListeners(type, "startContext").stream().anyMatch(StartOnly.class::isInstance));
+        assertTrue(manager.getImplementingListeners(type, "stopContext").stream().noneMatch(StartOnly.class::isInstance));
+    }
+
+    @Test
+    void parallelRegistration(ListenersManager manager) {
+        var registered = List.of(new Registered_1(), new Registered_2(), new Registered_3());
+        IntStream.range(0, 300).parallel().forEach(i -> {
+            manager.registerListener(registered.get(i % registered.size()));
+            manager.fireListeners(ListenerLifecycle.class, "listenerLoaded", Objects::requireNonNull);
+        });
+        assertTrue(manager.getContextListeners().containsAll(registered));
+    }
+
     boolean logContains(Class<?> aClass) {
         return logAppender.contains("Fired : " + aClass.getTypeName(), Level.INFO);
     }
@@ -103,6 +125,21 @@ public class ListenersTest {
     public static class ExcludeByName extends AbstractFromAnnotation {
     }
 
+    public static class StartOnly implements io.github.iruzhnikov.test.context.jupiter.context.TestContextListener {
+        @Override
+        public void startContext(Injector injector) {
+        }
+    }
+
+    public static class Registered_1 {
+    }
+
+    public static class Registered_2 {
+    }
+
+    public static class Registered_3 {
+    }
+
     @Slf4j
     public static abstract class AbstractFromAnnotation implements ListenerLifecycle {
         static AtomicInteger initCount = new AtomicInteger();
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.listeners;
+
+import io.github.iruzhnikov.test.context.jupiter.TestContextExecutionListener;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.util.ClassLoaderUtils;
+import org.junit.platform.launcher.TestExecutionListener;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceProvidersTest {
+
+    @Test
+    void providerTypesDiscoveredOnce() {
+        var classLoader = ClassLoaderUtils.getDefaultClassLoader();
+        var types = ServiceProviders.getProviderTypes(TestExecutionListener.class, classLoader);
+        assertTrue(types.contains(TestContextExecutionListener.class));
+        assertSame(types, ServiceProviders.getProviderTypes(TestExecutionListener.class, classLoader));
+    }
+
+    @Test
+    void providersInstantiatedOnEachLoad() {
+        var classLoader = ClassLoaderUtils.getDefaultClassLoader();
+        var first = ServiceProviders.load(TestExecutionListener.class, classLoader);
+        var second = ServiceProviders.load(TestExecutionListener.class, classLoader);
+        assertEquals(first.size(), second.size());
+        assertNotSame(first.get(0), second.get(0));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.listeners.impl;
+
+import io.github.iruzhnikov.test.context.jupiter.TestContextManager;
+import io.github.iruzhnikov.test.context.jupiter.context.annotations.TestContext;
+import io.github.iruzhnikov.test.context.jupiter.injector.Injector;
+import io.github.iruzhnikov.test.context.jupiter.listeners.ListenerEvent;
+import io.github.iruzhnikov.test.context.jupiter.listeners.annotations.TestContextListener;
+import io.github.iruzhnikov.test.context.jupiter.managers.annotations.ManagerId;
+import io.github.iruzhnikov.test.context.jupiter.scanner.impl.AnnotationsScannerImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListenersManagerImplTest {
+
+    @Test
+    void closedManagerNotUpdatedByNewTests() {
+        var scanner = new AnnotationsScannerImpl();
+        var manager = new TestContextManager("listeners-impl", scanner);
+        var listenersManager = new ListenersManagerImpl(manager);
+        listenersManager.close();
+        scanner.register(identifier(WithListener.class));
+        assertTrue(listenersManager.getContextListeners().stream().noneMatch(Included.class::isInstance));
+
+        var next = new ListenersManagerImpl(manager);
+        assertTrue(next.getContextListeners().stream().anyMatch(Included.class::isInstance));
+    }
+
+    @Test
+    void concurrentListenersThreadsReleasedByClose() throws InterruptedException {
+        System.setProperty(ListenersManagerImpl.CONCURRENT_PROPERTY, "true");
+        try {
+            var manager = new TestContextManager("listeners-concurrent", new AnnotationsScannerImpl());
+            var listenersManager = new ListenersManagerImpl(manager);
+            listenersManager.registerListener(new Concurrent());
+            listenersManager.registerListener(new OtherConcurrent());
+            var threads = ConcurrentHashMap.<Thread>newKeySet();
+            listenersManager.fireListeners(Concurrent.class, "startContext", l -> threads.add(Thread.currentThread()));
+            threads.remove(Thread.currentThread());
+            assertEquals(1, threads.size());
+
+            listenersManager.close();
+            for (var thread : threads) {
+                thread.join(5000);
+                assertFalse(thread.isAlive());
+            }
+        } finally {
+            System.clearProperty(ListenersManagerImpl.CONCURRENT_PROPERTY);
+        }
+    }
+
+    @Test
+    void eventListenersResolvedByPublish() {
+        var manager = new TestContextManager("listeners-events", new AnnotationsScannerImpl());
+        var listenersManager = new ListenersManagerImpl(manager);
+        var event = ListenerEvent.of(Counting.class, "startContext", Injector.class);
+        var first = new Counting();
+        listenersManager.registerListener(first);
+        listenersManager.fireListeners(event, null, null, null);
+        var second = new OtherCounting();
+        listenersManager.registerListener(second);
+        listenersManager.fireListeners(event, null, null, null);
+        assertEquals(2, first.started);
+        assertEquals(1, second.started);
+        listenersManager.close();
+    }
+
+    private static TestIdentifier identifier(Class<?> testClass) {
+        return TestIdentifier.from(new AbstractTestDescriptor(UniqueId.root("test", testClass.getName()),
+                testClass.getSimpleName(), ClassSource.from(testClass)) {
+            @Override
+            public Type getType() {
+                return Type.CONTAINER;
+            }
+        });
+    }
+
+    public static class Included {
+    }
+
+    public static class Concurrent implements io.github.iruzhnikov.test.context.jupiter.context.TestContextListener {
+        @Override
+        public void startContext(Injector injector) {
+        }
+    }
+
+    public static class OtherConcurrent extends Concurrent {
+    }
+
+    public static class Counting implements io.github.iruzhnikov.test.context.jupiter.context.TestContextListener {
+        protected int started;
+
+        @Override
+        public void startContext(Injector injector) {
+            started++;
+        }
+    }
+
+    public static class OtherCounting extends Counting {
+    }
+
+    @TestContext
+    @ManagerId("listeners-impl")
+    @TestContextListener(include = Included.class)
+    public static class WithListener {
+    }
+}
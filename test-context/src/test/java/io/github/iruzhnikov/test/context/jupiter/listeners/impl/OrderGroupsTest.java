@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.listeners.impl;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderGroupsTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void groupedByOrder() {
+        var groups = new OrderGroups<>(List.of(100, 200, 200, 300), l -> l);
+        assertEquals(List.of(List.of(100), List.of(200, 200), List.of(300)), groups.getGroups());
+    }
+
+    @Test
+    void groupFiredConcurrently() {
+        var latch = new CountDownLatch(2);
+        var fired = new CopyOnWriteArrayList<Integer>();
+        new OrderGroups<>(List.of(1, 2, 3), l -> l == 3 ? 1 : 0).fire(l -> {
+            if (l != 3) {
+                latch.countDown();
+                await(latch);
+            }
+            fired.add(l);
+        }, executor);
+        assertEquals(3, fired.get(2));
+    }
+
+    @Test
+    void groupErrorsAggregated() {
+        var fired = new CopyOnWriteArrayList<Integer>();
+        var ex = assertThrows(IllegalStateException.class, () -> new OrderGroups<>(List.of(1, 2, 3), l -> l == 3 ? 1 : 0)
+                .fire(l -> {
+                    fired.add(l);
+                    if (l != 3) {
+                        throw new IllegalStateException("crash " + l);
+                    }
+                }, executor));
+        assertEquals(1, ex.getSuppressed().length);
+        assertFalse(fired.contains(3), "Next group is fired after crash");
+    }
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.managers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(ExtensionContextResolver.class)
+class GenerationsTest {
+
+    @Test
+    void runningLeasesKeepPreviousGeneration() {
+        var stopped = new CopyOnWriteArrayList<Integer>();
+        var generations = new Generations<>("test", new AtomicInteger()::incrementAndGet, stopped::add);
+        var first = generations.lease("A");
+        generations.lease("B");
+        var started = new CopyOnWriteArrayList<Integer>();
+        var second = generations.renew("B", started::add);
+
+        assertEquals(List.of(second), started);
+        assertEquals(first, generations.lease("A"));
+        assertEquals(second, generations.lease("B"));
+        assertEquals(second, generations.lease("C"));
+        assertEquals(List.of(first, second), generations.getReplicas());
+
+        generations.release("A");
+        generations.awaitStopped();
+        assertEquals(List.of(first), stopped);
+        assertEquals(List.of(second), generations.getReplicas());
+    }
+
+    @Test
+    void renewedGenerationResolvedByTestContext(ExtensionContext context) {
+        var generations = new Generations<>("test", new AtomicInteger()::incrementAndGet, r -> {
+        });
+        var first = generations.lease(context);
+        assertEquals(first, generations.getCurrent(context));
+        var second = generations.renew(context, r -> {
+        });
+        assertNotEquals(first, second);
+        assertEquals(second, generations.getCurrent(context));
+        assertEquals(second, generations.lease(context));
+    }
+
+    @Test
+    void renewForNextLeases() {
+        var stopped = new CopyOnWriteArrayList<Integer>();
+        var generations = new Generations<>("test", new AtomicInteger()::incrementAndGet, stopped::add);
+        var first = generations.lease("A");
+        var second = generations.renew((String) null, r -> {
+        });
+        assertEquals(first, generations.lease("A"));
+        assertEquals(second, generations.lease("B"));
+
+        generations.release("A");
+        generations.awaitStopped();
+        assertEquals(List.of(first), stopped);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.managers;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(ExtensionContextResolver.class)
+class ReplicaPoolTest {
+
+    @Test
+    void leasedReplicaIsKeptByKey() {
+        var pool = new ReplicaPool<>(2, new AtomicInteger()::incrementAndGet);
+        var first = pool.lease("A");
+        var second = pool.lease("B");
+        assertNotEquals(first, second);
+        assertEquals(first, pool.lease("A"));
+    }
+
+    @Test
+    @SneakyThrows
+    void leaseResolvedByTestContext(ExtensionContext context) {
+        var pool = new ReplicaPool<>(2, new AtomicInteger()::incrementAndGet);
+        var replica = pool.lease(context);
+        assertEquals(replica, pool.lease(context));
+        //other thread of the same test gets replica of the test
+        assertEquals(replica, CompletableFuture.supplyAsync(() -> pool.getCurrent(context)).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void threadKeepsReplicaAcrossKeys() {
+        var pool = new ReplicaPool<>(2, new AtomicInteger()::incrementAndGet);
+        pool.lease("A");
+        var second = pool.lease("B");
+        pool.release("A");
+        pool.release("B");
+        assertEquals(second, pool.lease("C"));
+    }
+
+    @Test
+    @SneakyThrows
+    void leaseWaitsReleasedReplica() {
+        var pool = new ReplicaPool<>(1, new AtomicInteger()::incrementAndGet);
+        var first = pool.lease("A");
+        var waiting = CompletableFuture.supplyAsync(() -> pool.lease("B"));
+        assertThrows(Exception.class, () -> waiting.get(100, TimeUnit.MILLISECONDS));
+        pool.release("A");
+        assertEquals(first, waiting.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.github.iruzhnikov.test.context.jupiter.managers;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartSchedulerTest {
+
+    @Test
+    @SneakyThrows
+    void queuedStartsOrderedByDemandAndPriority() {
+        var scheduler = new StartScheduler(LauncherDiscoveryRequestBuilder.request()
+                .configurationParameter(StartScheduler.START_LIMIT_PROPERTY, "1")
+                .configurationParameter("test.context.manager.low.priority", "10")
+                .configurationParameter("test.context.manager.high.priority", "-10")
+                .build().getConfigurationParameters());
+        var release = new CountDownLatch(1);
+        var started = new CopyOnWriteArrayList<String>();
+        var running = start(scheduler, "running", false, () -> await(release), started);
+        while (started.isEmpty()) {
+            Thread.onSpinWait();
+        }
+        var low = start(scheduler, "low", false, () -> {}, started);
+        var high = start(scheduler, "high", false, () -> {}, started);
+        var demanded = start(scheduler, "demanded", false, () -> {}, started);
+        awaitWaiting(low, high, demanded);
+        //queued starts wait at least while running start isn't released
+        TimeUnit.MILLISECONDS.sleep(50);
+        scheduler.demand("demanded");
+        release.countDown();
+        join(running, low, high, demanded);
+
+        assertEquals(List.of("running", "demanded", "high", "low"), started);
+        assertTrue(scheduler.getStatistic("low").orElseThrow().getQueueWait()
+                .compareTo(Duration.ofMillis(50)) >= 0);
+    }
+
+    private static Thread start(StartScheduler scheduler, String id, boolean isDemanded, Runnable start,
+                                List<String> started) {
+        var thread = new Thread(() -> scheduler.start(id, isDemanded, () -> {
+            started.add(id);
+            start.run();
+        }));
+        thread.start();
+        return thread;
+    }
+
+    @SneakyThrows
+    private static void awaitWaiting(Thread... threads) {
+        for (var thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @SneakyThrows
+    private static void join(Thread... threads) {
+        for (var thread : threads) {
+            thread.join(5_000);
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
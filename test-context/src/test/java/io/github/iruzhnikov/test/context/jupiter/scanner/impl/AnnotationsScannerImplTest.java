@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.github.iruzhnikov.test.context.jupiter.scanner.impl;
+
+import io.github.iruzhnikov.test.context.jupiter.context.annotations.TestContext;
+import io.github.iruzhnikov.test.context.jupiter.managers.annotations.ManagerId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.CompositeTestSource;
+import org.junit.platform.engine.support.descriptor.EngineDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnnotationsScannerImplTest {
+
+    @Test
+    void annotationsResolvedOnce() throws NoSuchMethodException {
+        var scanner = new AnnotationsScannerImpl();
+        var method = Annotated.class.getMethod("test");
+        assertTrue(scanner.isTestContext(Annotated.class));
+        assertTrue(scanner.isTestContext(Annotated.class));
+        assertFalse(scanner.isTestContext(method));
+        assertFalse(scanner.isTestContext(Annotated.class.getMethod("test")));
+        assertEquals(2, scanner.getCacheMisses());
+        assertEquals(2, scanner.getCacheHits());
+
+        assertEquals("default", scanner.findAnnotation(Annotated.class, ManagerId.class).orElseThrow().value());
+        assertFalse(scanner.findAnnotations(Annotated.class, ExtendWith.class).isEmpty());
+    }
+
+    @Test
+    void identifiersIndexedByManager() {
+        var scanner = new AnnotationsScannerImpl();
+        scanner.register(identifier("annotated", ClassSource.from(Annotated.class)));
+        scanner.register(identifier("other", ClassSource.from(OtherManager.class)));
+        scanner.register(identifier("plain", ClassSource.from(AnnotationsScannerImplTest.class)));
+
+        assertEquals(List.of("default"), values(scanner, "default"));
+        assertEquals(List.of("other"), values(scanner, "other"));
+        assertEquals(List.of(), values(scanner, "unknown"));
+    }
+
+    @Test
+    void subscriberNotifiedByNewIdentifiers() {
+        var scanner = new AnnotationsScannerImpl();
+        scanner.register(identifier("annotated", ClassSource.from(Annotated.class)));
+        var notified = new ArrayList<List<ManagerId>>();
+        scanner.subscribe("default", ManagerId.class, notified::add);
+        assertEquals(1, notified.size());
+        assertEquals(1, notified.get(0).size());
+
+        scanner.register(identifier("other", ClassSource.from(OtherManager.class)));
+        assertEquals(1, notified.size());
+        scanner.register(identifier("annotated-again", ClassSource.from(Annotated.class)));
+        assertEquals(2, notified.size());
+        assertEquals(1, notified.get(1).size());
+        assertEquals(2, scanner.getManagerAnnotations("default", ManagerId.class).size());
+    }
+
+    @Test
+    void testPlanRegisteredByManager() {
+        var scanner = new AnnotationsScannerImpl();
+        var engine = new EngineDescriptor(UniqueId.forEngine("test"), "test");
+        engine.addChild(descriptor(engine.getUniqueId().append("class", "annotated"), ClassSource.from(Annotated.class)));
+        engine.addChild(descriptor(engine.getUniqueId().append("class", "other"), ClassSource.from(OtherManager.class)));
+        engine.addChild(descriptor(engine.getUniqueId().append("class", "plain"),
+                ClassSource.from(AnnotationsScannerImplTest.class)));
+        var plan = TestPlan.from(List.of(engine), LauncherDiscoveryRequestBuilder.request().build().getConfigurationParameters());
+
+        var registered = scanner.register(plan);
+        assertEquals(Set.of("default", "other"), registered.keySet());
+        assertEquals(List.of("annotated"), registered.get("default").stream()
+                .map(TestIdentifier::getDisplayName).collect(toList()));
+        assertEquals(List.of("other"), values(scanner, "other"));
+        assertEquals(List.of("default"), values(scanner, "default"));
+    }
+
+    @Test
+    void testPlanIdentifierRegisteredByManagerOfMethod() {
+        var scanner = new AnnotationsScannerImpl();
+        var engine = new EngineDescriptor(UniqueId.forEngine("test"), "test");
+        engine.addChild(descriptor(engine.getUniqueId().append("method", "other"),
+                MethodSource.from(Annotated.class.getName(), "otherManagerTest")));
+        var plan = TestPlan.from(List.of(engine), LauncherDiscoveryRequestBuilder.request().build().getConfigurationParameters());
+
+        var registered = scanner.register(plan);
+        assertEquals(Set.of("other"), registered.keySet());
+        assertEquals(List.of("other"), registered.get("other").stream()
+                .map(TestIdentifier::getDisplayName).collect(toList()));
+    }
+
+    @Test
+    void duplicatedElementsOfSourceSkipped() {
+        var scanner = new AnnotationsScannerImpl();
+        var source = CompositeTestSource.from(List.of(ClassSource.from(Annotated.class),
+                MethodSource.from(Annotated.class.getName(), "test"), ClassSource.from(Annotated.class)));
+        assertEquals(List.of(Annotated.class), scanner.getAnnotatedElements(Optional.of(source)).collect(toList()));
+        assertEquals(List.of(), scanner.getAnnotatedElements(Optional.of(source), s -> false).collect(toList()));
+    }
+
+    @Test
+    void unsubscribedNotNotified() {
+        var scanner = new AnnotationsScannerImpl();
+        var notified = new ArrayList<List<ManagerId>>();
+        var unsubscribe = scanner.subscribe("default", ManagerId.class, notified::add);
+        unsubscribe.run();
+        scanner.register(identifier("annotated", ClassSource.from(Annotated.class)));
+        assertEquals(List.of(List.of()), notified);
+    }
+
+    @Test
+    void annotationsRegisteredBySubscriberPassedAfterCurrent() {
+        var scanner = new AnnotationsScannerImpl();
+        scanner.register(identifier("annotated", ClassSource.from(Annotated.class)));
+        var notified = new ArrayList<Integer>();
+        scanner.subscribe("default", ManagerId.class, added -> {
+            notified.add(added.size());
+            scanner.register(identifier("annotated-again", ClassSource.from(Annotated.class)));
+        });
+        assertEquals(List.of(1, 1), notified);
+    }
+
+    private static List<String> values(AnnotationsScannerImpl scanner, String managerId) {
+        return scanner.getManagerAnnotations(managerId, ManagerId.class).stream().map(ManagerId::value)
+                .collect(toList());
+    }
+
+    private static TestIdentifier identifier(String name, TestSource source) {
+        return TestIdentifier.from(descriptor(UniqueId.root("test", name), source));
+    }
+
+    private static TestDescriptor descriptor(UniqueId uniqueId, TestSource source) {
+        var name = uniqueId.getLastSegment().getValue();
+        return new AbstractTestDescriptor(uniqueId, name, source) {
+            @Override
+            public Type getType() {
+                return Type.CONTAINER;
+            }
+        };
+    }
+
+    @TestContext
+    public static class Annotated {
+        public void test() {
+        }
+
+        @TestContext
+        @ManagerId("other")
+        public void otherManagerTest() {
+        }
+    }
+
+    @TestContext
+    @ManagerId("other")
+    public static class OtherManager {
+    }
+}